@@ -0,0 +1,109 @@
+package chess;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Microbenchmarks of the board, move generation and evaluation, each run on
+ * an opening, a middlegame and an endgame position. Run with "ant bench",
+ * which also reports the bytes allocated per operation.
+ *
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    //Ruy Lopez after 3...a6
+    static final String OPENING
+            = "r1bqkbnr/1ppp1ppp/p1n5/1B2p3/4P3/5N2/PPPP1PPP/RNBQK2R w KQkq -"
+            + " 0 4";
+    //"Kiwipete", full of captures, pins and castling
+    static final String MIDDLEGAME
+            = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -"
+            + " 0 1";
+    static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    private Board board;
+    private Player white;
+    private AIPlayer ai;
+    private final int[] moves = new int[Board.MAX_MOVES];
+
+    @Setup
+    public void setUp() {
+        Chess c;
+        switch (position) {
+            case "opening":
+                c = new Chess(OPENING);
+                break;
+            case "middlegame":
+                c = new Chess(MIDDLEGAME);
+                break;
+            default:
+                c = new Chess(ENDGAME);
+        }
+        board = c.getBoard();
+        white = c.getPlayers().get(0);
+        ai = new AIPlayer(COLOURS.white, board, 0, 0);
+    }
+
+    @Benchmark
+    public void getMan(Blackhole bh) {
+        for (int y = 0; y < Bitboards.SIZE; y++) {
+            for (int x = 0; x < Bitboards.SIZE; x++) {
+                bh.consume(board.getMan(x, y));
+            }
+        }
+    }
+
+    @Benchmark
+    public void isAttacked(Blackhole bh) {
+        for (int y = 0; y < Bitboards.SIZE; y++) {
+            for (int x = 0; x < Bitboards.SIZE; x++) {
+                bh.consume(board.isAttacked(x, y, white));
+            }
+        }
+    }
+
+    @Benchmark
+    public Board cloneBoard() {
+        return new Board(board);
+    }
+
+    @Benchmark
+    public void potentialMoves(Blackhole bh) {
+        for (Chessman c : board.getMenForPlayer(white)) {
+            bh.consume(c.getPotentialMoves());
+        }
+    }
+
+    @Benchmark
+    public int generateMoves() {
+        return board.generateMoves(white.getSide(), moves, true);
+    }
+
+    @Benchmark
+    public int utility() {
+        return ai.utility(board);
+    }
+}
@@ -1,9 +1,18 @@
 package chess;
 
-import java.awt.Point;
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintStream;
 import java.util.ArrayList;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * @author Alexis Varsava <av11sl@brocku.ca>
@@ -12,28 +21,63 @@ import java.util.ArrayList;
  */
 public class AIPlayer extends Player {
 
+    //larger than any score utility() can give
+    static final int INFINITY = 1000000;
+    static final int TABLE_MEGABYTES = 32;
+    static final int PAWN_TABLE_MEGABYTES = 1;
+
+    //check the clock once every this many nodes
+    static final int NODES_PER_CLOCK_CHECK = 1024;
+
     int maxPly;
+    //depth of the main search's current iteration, never more than maxPly
+    volatile int searchPly;
+    //milliseconds allowed per move, 0 for no limit
+    long timeBudget;
+    volatile long deadline;
+    volatile boolean stopped;
+    //threads to search with, 1 to search on this thread alone
+    int threads;
+    //whether extra threads run whole searches of their own (Lazy SMP)
+    //rather than taking root moves from the main search
+    boolean lazySmp;
+    ForkJoinPool pool;
     Player opponent;
-    BoardChange toMake;
+    TranspositionTable table;
+    PawnHashTable pawnTable;
+    //statistics of the last move played, and of the last search finished,
+    //which may be a ponder search nobody used
+    SearchStats lastStats;
+    SearchStats searchStats;
+    //where to write the statistics of each search, or null
+    PrintStream statsLog;
+    //told the statistics so far after each iteration, or null
+    Consumer<SearchStats> iterationListener;
+    //whether to search the expected reply while the opponent thinks
+    boolean ponder;
+    //search of the position after the expected reply, its key, and when
+    //the search started
+    FutureTask<Integer> pondering;
+    long ponderKey;
+    long ponderStart;
+    //moves to play without searching, or null
+    OpeningBook book;
     static BufferedReader reader;
 
     /**
      * Construct an AI Player
      *
-     * prompts the user to choose a ply
+     * prompts the user to choose a ply, a time limit and a number of threads,
+     * and ponders on the opponent's time
      *
      * @param c Colour to assign to this player
      * @param b Board on which this players pieces go
      */
     public AIPlayer(COLOURS c, Board b) {
-        super(c, b);
+        this(c, b, 0, 0);
         String s = "";
+        ponder = true;
         reader = new BufferedReader(new InputStreamReader(System.in));
-        for (Player p : theBoard.getChess().getPlayers()) {
-            if (p != this) {
-                opponent = p;
-            }
-        }
         System.out.println("Please enter the search tree depth.");
         System.out.print("> ");
         do {
@@ -45,6 +89,199 @@ public class AIPlayer extends Player {
                 continue;
             }
         } while (s.equals(""));
+
+        System.out.println("Please enter the time limit per move in seconds"
+                + " (0 for none).");
+        System.out.print("> ");
+        s = null;
+        do {
+            try {
+                s = reader.readLine();
+                timeBudget = (long) (Double.parseDouble(s) * 1000);
+            } catch (Exception ex) {
+                System.err.println("Please enter a number.");
+                s = null;
+            }
+        } while (s == null);
+
+        System.out.println("Please enter the number of search threads"
+                + " (0 for one per core).");
+        System.out.print("> ");
+        s = null;
+        do {
+            try {
+                s = reader.readLine();
+                setThreads(Integer.parseInt(s));
+            } catch (Exception ex) {
+                System.err.println("Please enter a number.");
+                s = null;
+            }
+        } while (s == null);
+    }
+
+    /**
+     * @return table caching pawn structure scores, for its hit rate
+     */
+    public PawnHashTable getPawnTable() {
+        return pawnTable;
+    }
+
+    /**
+     * Construct an AI Player without prompting anyone, searching on one
+     * thread
+     *
+     * @param c Colour to assign to this player
+     * @param b Board on which this players pieces go
+     * @param ply search tree depth
+     * @param millis milliseconds allowed per move, 0 for no limit
+     */
+    public AIPlayer(COLOURS c, Board b, int ply, long millis) {
+        this(c, b, ply, millis, new TranspositionTable(TABLE_MEGABYTES),
+                new PawnHashTable(PAWN_TABLE_MEGABYTES));
+        book = openBook();
+    }
+
+    /**
+     * Construct an AI Player without prompting anyone, searching on one
+     * thread with tables kept from earlier players, so that what they
+     * learned is not lost
+     *
+     * @param c Colour to assign to this player
+     * @param b Board on which this players pieces go
+     * @param ply search tree depth
+     * @param millis milliseconds allowed per move, 0 for no limit
+     * @param table transposition table to search with
+     * @param pawnTable pawn hash table to evaluate with
+     */
+    AIPlayer(COLOURS c, Board b, int ply, long millis,
+            TranspositionTable table, PawnHashTable pawnTable) {
+        super(c, b);
+        this.table = table;
+        this.pawnTable = pawnTable;
+        threads = 1;
+        maxPly = ply;
+        timeBudget = millis;
+        if (Boolean.getBoolean("chess.searchlog")) {
+            statsLog = System.err;
+        }
+        for (Player p : theBoard.getChess().getPlayers()) {
+            if (p.getColour() != c) {
+                opponent = p;
+            }
+        }
+    }
+
+    /**
+     * @return statistics of the search for the last move played, or null
+     * before the first
+     */
+    public SearchStats getLastStats() {
+        return lastStats;
+    }
+
+    /**
+     * Sets where to write a line of statistics after each search. Running
+     * with -Dchess.searchlog=true sends them to System.err.
+     *
+     * @param log stream to write to, or null for none
+     */
+    public void setStatsLog(PrintStream log) {
+        statsLog = log;
+    }
+
+    /**
+     * @param listener told the statistics so far, with the best move and
+     * principal variation, each time an iteration finishes, or null for none
+     */
+    public void setIterationListener(Consumer<SearchStats> listener) {
+        iterationListener = listener;
+    }
+
+    public void setMaxPly(int ply) {
+        maxPly = ply;
+    }
+
+    /**
+     * @param millis milliseconds allowed per move, 0 for no limit
+     */
+    public void setTimeBudget(long millis) {
+        timeBudget = millis;
+    }
+
+    /**
+     * @param n number of threads to search with, 0 for one per core
+     */
+    public void setThreads(int n) {
+        threads = n > 0 ? n : Runtime.getRuntime().availableProcessors();
+        if (pool != null && pool.getParallelism() != threads) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * @param lazy true for extra threads to search the whole position, with
+     * only the transposition table shared, rather than split the root moves
+     */
+    public void setLazySmp(boolean lazy) {
+        lazySmp = lazy;
+    }
+
+    /**
+     * @param ponder true to search the position after the expected reply
+     * while waiting for the opponent to move
+     */
+    public void setPonder(boolean ponder) {
+        this.ponder = ponder;
+        if (!ponder) {
+            stopPondering();
+        }
+    }
+
+    /**
+     * @param book opening book to play from before searching, or null for
+     * none
+     */
+    public void setBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Opens the book named by -Dchess.book, if any.
+     *
+     * @return the book, or null if none is named or it cannot be read
+     */
+    static OpeningBook openBook() {
+        String name = System.getProperty("chess.book");
+        if (name == null) {
+            return null;
+        }
+        try {
+            return new OpeningBook(Paths.get(name));
+        } catch (IOException ex) {
+            System.err.println("Could not read book " + name + ": " + ex);
+            return null;
+        }
+    }
+
+    /**
+     * Lets go of the threads kept for searching. They are started again if
+     * this player is asked to move.
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Asks a search in progress to play the best move it has found. The
+     * first iteration still finishes, so there is always a move to play.
+     */
+    public void stop() {
+        //a deadline long past
+        deadline = 1;
     }
 
     /**
@@ -52,128 +289,414 @@ public class AIPlayer extends Player {
      *
      * Based on algorithm found in Russell & Norvig, 2010 (3e)
      *
+     * The search is iterative deepening: it searches 1 ply deeper each time
+     * round, up to maxPly, until the time budget runs out, and plays the best
+     * move of the last search it finished. Each search tries the previous
+     * best moves first, through the transposition table and by putting the
+     * previous best root move at the front.
+     *
+     * With Lazy SMP, helper threads search the same position alongside, some
+     * a ply ahead, and the main search picks up what they leave in the
+     * transposition table.
+     *
+     * When pondering, the expected reply was searched while the opponent
+     * thought. If the opponent played it, that search carries on rather
+     * than starting over, with the time spent pondering counted against the
+     * time budget, so a long think by the opponent means an instant reply.
+     *
+     * A move from the opening book, if there is one for the position, is
+     * played without searching at all.
+     *
      * @return BoardChange to add to history
      */
     @Override
     public BoardChange movePiece() {
-        toMake = null;
-        double v = Double.NEGATIVE_INFINITY;
-        double w;
-        BoardState currentState = new BoardState(theBoard, null, this);
-        BoardChange result = null;
+        int result = book == null ? Move.NONE : book.probe(theBoard);
 
-        //iterate through possible moves in order to be able to select one
-        //to carry out on the board
-        for (BoardChange bc : actions(currentState)) {
-            w = minValue(new BoardState(currentState.getState(), bc, opponent),
-                    Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0);
-            if (w > v) {
-                result = bc;
-                v = w;
-            }
+        if (result != Move.NONE) {
+            stopPondering();
+            lastStats = new SearchStats();
+            lastStats.setResult(result, 0, -1);
+            lastStats.addPv(result);
+        } else if (pondering != null
+                && theBoard.getPosition().getKey() == ponderKey) {
+            deadline = timeBudget > 0 ? ponderStart + timeBudget : 0;
+            result = finish(pondering);
+            pondering = null;
+            publishStats();
+        } else {
+            stopPondering();
+            stopped = false;
+            deadline = timeBudget > 0
+                    ? System.currentTimeMillis() + timeBudget : 0;
+            result = search(new Board(theBoard));
+            publishStats();
         }
-        if (result == null) {
+        if (result == Move.NONE) {
             System.err.println("MovePiece never could make a decision.");
             return null;
         }
-        theBoard.moveFromChange(result);
 
-        return result;
+        BoardChange change = theBoard.toChange(result);
+        theBoard.makeMove(change);
+        if (ponder) {
+            startPondering();
+        }
+
+        return change;
     }
 
-    private double maxValue(BoardState s, double a, double b, int d) {
-        double v;
-        if (cutoffTest(s, d)) {
-            return utility(s);
+    /**
+     * Searches a position by iterative deepening, until maxPly is reached,
+     * the deadline passes or the search is stopped. The caller sets the
+     * deadline and clears stopped first. The statistics are left in
+     * searchStats, for the caller to report if the move is played.
+     *
+     * @param board copy of the board to search, with this player to move
+     * @return best move of the last iteration finished, or Move.NONE
+     */
+    private int search(Board board) {
+        Searcher searcher = new Searcher(this, board);
+        int[] moves = searcher.actions(this);
+        ArrayList<Future<?>> helpers = new ArrayList<>();
+        ArrayList<Helper> helperSearches = new ArrayList<>();
+        SearchStats stats = new SearchStats();
+        int result = Move.NONE, best;
+        long start = System.currentTimeMillis();
+        Helper helper;
+
+        searchPly = 0;
+        if (threads > 1 && lazySmp) {
+            startPool();
+            for (int i = 1; i < threads; i++) {
+                helper = new Helper(searcher.getBoard(), moves, i);
+                helperSearches.add(helper);
+                helpers.add(pool.submit(helper));
+            }
         }
-        v = Double.NEGATIVE_INFINITY;
 
-        for (BoardChange bc : actions(s)) {
-            v = Math.max(v, minValue(result(s, bc), a, b, d + 1));
-            if (v >= b) {
-                toMake = bc;
-                return v;
+        for (searchPly = 0; searchPly <= maxPly; searchPly++) {
+            searcher.setPly(searchPly);
+            if (threads > 1 && !lazySmp && moves.length > 1) {
+                best = searchRootParallel(searcher, moves, stats);
+            } else {
+                best = searchRoot(searcher, moves);
+            }
+            if (best == Move.NONE) {
+                break;
+            }
+            result = best;
+            stats.setResult(best, searcher.getRootScore(), searchPly);
+            toFront(moves, best);
+            if (iterationListener != null) {
+                iterationListener.accept(progress(stats, searcher, result,
+                        helperSearches, start));
             }
-            a = Math.max(a, v);
         }
-        return v;
+        //the helpers have nothing to hand back, so just wait for them to stop
+        stopped = true;
+        for (Future<?> f : helpers) {
+            try {
+                f.get();
+            } catch (Exception ex) {
+                System.err.println("Search failed: " + ex);
+            }
+        }
+        searchStats = progress(stats, searcher, result, helperSearches,
+                start);
+        return result;
     }
 
-    private double minValue(BoardState s, double a, double b, int d) {
-        double v;
-        if (cutoffTest(s, d)) {
-            return utility(s);
+    /**
+     * Makes the last search finished the one whose statistics are reported,
+     * once its move is played. Ponder searches whose reply never came are
+     * not reported at all.
+     */
+    private void publishStats() {
+        lastStats = searchStats;
+        if (statsLog != null) {
+            statsLog.println(lastStats);
         }
-        v = Double.POSITIVE_INFINITY;
+    }
 
-        for (BoardChange bc : actions(s)) {
-            v = Math.min(v, maxValue(result(s, bc), a, b, d + 1));
-            if (v <= a) {
-                toMake = bc;
-                return v;
-            }
-            b = Math.min(b, v);
+    /**
+     * Starts searching, on a thread of its own, the position after the
+     * reply the last search expects, with no deadline until the opponent
+     * moves.
+     */
+    private void startPondering() {
+        Board board = new Board(theBoard);
+        int reply = tableMove(board);
+        Thread t;
+        if (reply == Move.NONE) {
+            return;
+        }
+        board.makeMove(reply);
+        ponderKey = board.getPosition().getKey();
+        stopped = false;
+        deadline = 0;
+        ponderStart = System.currentTimeMillis();
+        pondering = new FutureTask<>(() -> search(board));
+        //a game which ends while pondering shouldn't be kept running
+        t = new Thread(pondering, "ponder");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    //stops pondering, if this player is, throwing the search away
+    private void stopPondering() {
+        if (pondering != null) {
+            stopped = true;
+            finish(pondering);
+            pondering = null;
+        }
+    }
+
+    private int finish(FutureTask<Integer> task) {
+        try {
+            return task.get();
+        } catch (Exception ex) {
+            System.err.println("Search failed: " + ex);
+            return Move.NONE;
         }
-        return v;
     }
 
     /**
-     * Cuts off a branch if a terminal node is found
+     * Gathers the statistics of the search so far.
      *
-     * Terminal nodes may be either a winning condition, or the leaf of a branch
-     * having hit the maximum ply.
-     *
-     * @param s state to test
-     * @param depth depth on the tree
-     * @return whether or not this is a terminal node
+     * @param stats result so far, and the counts of finished root tasks
+     * @param searcher main searcher, between iterations
+     * @param best move chosen so far, or Move.NONE
+     * @param helpers Lazy SMP helpers, which may still be searching
+     * @param start time the search started
+     * @return statistics of the whole search so far
      */
-    private boolean cutoffTest(BoardState s, int depth) {
-        if (depth >= maxPly) {
-            return true;
+    private SearchStats progress(SearchStats stats, Searcher searcher,
+            int best, ArrayList<Helper> helpers, long start) {
+        SearchStats result = new SearchStats(stats);
+        result.add(searcher);
+        for (Helper h : helpers) {
+            result.add(h.searcher);
         }
-        if (s.getState().endCheck(this, false)
-                || s.getState().endCheck(opponent, false)) {
-            return true;
+        result.setMillis(System.currentTimeMillis() - start);
+        principalVariation(searcher.getBoard(), best, result);
+        return result;
+    }
+
+    //moves a root move to the front, keeping the others in order
+    private static void toFront(int[] moves, int move) {
+        int i = 0;
+        while (moves[i] != move) {
+            i++;
         }
-        return false;
+        System.arraycopy(moves, 0, moves, 1, i);
+        moves[0] = move;
     }
 
     /**
-     * Creates a collection of actions that could be carried out by the
-     * opponent.
+     * Searches every root move to the current iteration's depth, one after
+     * the other. Once a move has been scored, later moves are only searched
+     * far enough to show they are no better.
      *
-     * @param s state to test
-     * @return list of board changes (actions)
-     */
-    private ArrayList<BoardChange> actions(BoardState s) {
-        Player otherPlayer = s.getPlayer() == this ? opponent : this;
-        ArrayList<BoardChange> result = new ArrayList<>();
-        ArrayList<Chessman> enemyPieces = new ArrayList<>();
-        enemyPieces.addAll(s.getState().getChessmen());
-        enemyPieces.removeAll(s.getState().getMenForPlayer(otherPlayer));
-
-        for (Chessman c : enemyPieces) {
-            if (!c.isAlive()) {
-                continue;
+     * @param searcher searcher whose board the moves belong to, and which
+     * is given the best move's score
+     * @param moves moves available at the root
+     * @return best move, or Move.NONE if time ran out first
+     */
+    private int searchRoot(Searcher searcher, int[] moves) {
+        int v = -INFINITY;
+        int w;
+        int result = Move.NONE;
+
+        //iterate through possible moves in order to be able to select one
+        //to carry out on the board
+        for (int move : moves) {
+            w = searcher.searchRoot(move, v - 1);
+            if (stopped) {
+                return Move.NONE;
             }
-            for (Point p : c.getPotentialMoves()) {
-                result.add(s.createChange(c, p));
+            if (w > v) {
+                result = move;
+                v = w;
             }
         }
+        searcher.setRootScore(v);
+        storeRoot(searcher.getBoard(), result, v, searcher.getPly());
+        return result;
+    }
+
+    /**
+     * Searches every root move to the current iteration's depth, spread
+     * across the pool's threads with a board each. The best score so far is
+     * shared so later moves are still cut short, and ties go to the earliest
+     * move, so the result is the same as searchRoot()'s.
+     *
+     * @param searcher searcher whose board the moves belong to, left
+     * untouched, and which is given the best move's score
+     * @param moves moves available at the root
+     * @param stats statistics to add each task's counts to
+     * @return best move, or Move.NONE if time ran out first
+     */
+    private int searchRootParallel(Searcher searcher, int[] moves,
+            SearchStats stats) {
+        Board board = searcher.getBoard();
+        AtomicInteger alpha = new AtomicInteger(-INFINITY);
+        ArrayList<RootTask> tasks = new ArrayList<>();
+        ArrayList<Future<Integer>> scores;
+        int result = Move.NONE;
+        RootTask task;
+        int v = -INFINITY, w;
 
+        startPool();
+        for (int move : moves) {
+            tasks.add(new RootTask(board, move, alpha));
+        }
+        try {
+            scores = new ArrayList<>(pool.invokeAll(tasks));
+            for (int i = 0; i < tasks.size(); i++) {
+                w = scores.get(i).get();
+                task = tasks.get(i);
+                stats.add(task.searcher);
+                //below the bound it was searched against, w is only a limit
+                if (w >= task.floor && w > v) {
+                    result = task.move;
+                    v = w;
+                }
+            }
+        } catch (Exception ex) {
+            System.err.println("Search failed: " + ex);
+            return Move.NONE;
+        }
+        if (stopped) {
+            return Move.NONE;
+        }
+        searcher.setRootScore(v);
+        storeRoot(board, result, v, searchPly);
         return result;
     }
 
+    private void storeRoot(Board board, int result, int v, int ply) {
+        if (result != Move.NONE) {
+            table.store(board.getPosition().getKey(), ply + 1,
+                    TranspositionTable.EXACT, v, Move.getSquares(result));
+        }
+    }
+
     /**
-     * Creates a new board state in which an action occurs.
+     * Starts from the move chosen, then follows the best moves the
+     * transposition table holds, as far as the depth searched, stopping
+     * early at a move which is no longer legal or a position already passed
+     * through. The root's own entry is not used, since a deeper one from an
+     * earlier search or a helper may have kept its slot.
      *
-     * @param bs starting state
-     * @param bc action to apply
-     * @return new state
+     * @param board board at the root, left as it was found
+     * @param best move chosen at the root, or Move.NONE
+     * @param stats statistics to add the moves to
+     */
+    private void principalVariation(Board board, int best,
+            SearchStats stats) {
+        HashSet<Long> seen = new HashSet<>();
+        Position pos = board.getPosition();
+        int made = 0, move = best;
+
+        while (move != Move.NONE && made <= stats.getDepth()
+                && seen.add(pos.getKey())) {
+            stats.addPv(move);
+            board.makeMove(move);
+            made++;
+            move = tableMove(board);
+        }
+        while (made-- > 0) {
+            board.unmakeMove();
+        }
+    }
+
+    /**
+     * @param board board whose position to look up
+     * @return the move the transposition table holds for the position, if
+     * it is legal there, or Move.NONE
      */
-    private BoardState result(BoardState bs, BoardChange bc) {
-        Player otherPlayer = bs.getPlayer() == this ? opponent : this;
-        return new BoardState(bs.getState(), bc, otherPlayer);
+    private int tableMove(Board board) {
+        Position pos = board.getPosition();
+        int[] moves = new int[Board.MAX_MOVES];
+        int squares = TranspositionTable.getMove(table.probe(pos.getKey()));
+        int count = board.generateMoves(pos.getSideToMove(), moves, true);
+        int move = Move.NONE;
+        //a promotion is listed queen first, which is what was searched
+        for (int i = count - 1; i >= 0; i--) {
+            if (Move.getSquares(moves[i]) == squares) {
+                move = moves[i];
+            }
+        }
+        return move;
+    }
+
+    private void startPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(threads);
+        }
+    }
+
+    /**
+     * Searches one root move on a copy of the board.
+     */
+    private class RootTask implements Callable<Integer> {
+
+        private final Board board;
+        private final int move;
+        private final AtomicInteger alpha;
+        //best score of any root move when this one was started
+        private int floor;
+        private Searcher searcher;
+
+        RootTask(Board board, int move, AtomicInteger alpha) {
+            this.board = board;
+            this.move = move;
+            this.alpha = alpha;
+        }
+
+        @Override
+        public Integer call() {
+            int w;
+            searcher = new Searcher(AIPlayer.this, new Board(board));
+            searcher.setPly(searchPly);
+            floor = alpha.get();
+            w = searcher.searchRoot(move, floor - 1);
+            if (!stopped) {
+                alpha.accumulateAndGet(w, Math::max);
+            }
+            return w;
+        }
+    }
+
+    /**
+     * Searches the same position as the main search, for Lazy SMP. All it
+     * leaves behind is what it puts in the transposition table.
+     */
+    private class Helper implements Runnable {
+
+        private final Searcher searcher;
+        private final int[] moves;
+        private final int id;
+
+        Helper(Board board, int[] rootMoves, int id) {
+            searcher = new Searcher(AIPlayer.this, new Board(board));
+            moves = new int[rootMoves.length];
+            //start each helper on a different root move
+            for (int i = 0; i < moves.length; i++) {
+                moves[i] = rootMoves[(i + id) % moves.length];
+            }
+            this.id = id;
+        }
+
+        @Override
+        public void run() {
+            //odd helpers start a ply ahead of the main search
+            for (int ply = id % 2; ply <= maxPly && !stopped; ply++) {
+                searcher.setPly(ply);
+                searchRoot(searcher, moves);
+            }
+        }
     }
 
     /**
@@ -183,62 +706,59 @@ public class AIPlayer extends Player {
      * the difference in amounts of pieces between players, as well as certain
      * pawn arrangements
      *
+     * Scores are in tenths of a pawn, so they can be kept as integers. The
+     * material part, 2000 for a king, 90 for a queen, 50 for a rook, 30 for a
+     * bishop or knight and 10 for a pawn, is kept up to date by the Position
+     * as pieces come and go.
+     *
      * @param s state to evaluate
      * @return relative utility score
      */
-    private double utility(BoardState s) {
-        return 200 * (count(s, King.class, this)
-                     - count(s, King.class, opponent))
-                + 9 * (count(s, Queen.class, this)
-                        - count(s, Queen.class, opponent))
-                + 5 * (count(s, Rook.class, this)
-                        - count(s, Rook.class, opponent))
-                + 3 * (count(s, Bishop.class, this)
-                        - count(s, Bishop.class, opponent)
-                + count(s, Knight.class, this)
-                        - count(s, Knight.class, opponent))
-                + (count(s, Pawn.class, this)
-                        - count(s, Pawn.class, opponent))
-                - 0.5 * (doubledPawns(s, this)
-                        - doubledPawns(s, opponent)
-                + isolatedPawns(s, this)
-                        - isolatedPawns(s, opponent))
-                + 0.1 * (mobility(s, this)
+    int utility(Board s) {
+        Position pos = s.getPosition();
+        return pos.getMaterial(getSide())
+                - pos.getMaterial(opponent.getSide())
+                - 5 * pawnStructure(s)
+                + (mobility(s, this)
                         - mobility(s, opponent));
     }
 
-    private int count(BoardState s, Class<? extends Chessman> t, Player p) {
-        int sum = 0;
-        for (Chessman c : s.getState().getChessmen()) {
-            if (t.isInstance(c) && c.getOwner() == p
-                    && c.isAlive()) {
-                sum++;
-            }
+    /**
+     * Gets the doubled and isolated pawns of this player less those of the
+     * opponent, from the pawn hash table if the structure has been seen.
+     *
+     * @param s state to evaluate
+     * @return pawn structure penalty, relative to this player
+     */
+    private int pawnStructure(Board s) {
+        long key = s.getPosition().getPawnKey();
+        long entry = pawnTable.probe(key);
+        int w = COLOURS.white.ordinal(), k = COLOURS.black.ordinal();
+        int white;
+        if (entry != 0) {
+            white = PawnHashTable.getScore(entry);
+        } else {
+            white = doubledPawns(s, w) - doubledPawns(s, k)
+                    + isolatedPawns(s, w) - isolatedPawns(s, k);
+            pawnTable.store(key, white);
         }
-        return sum;
+        return getSide() == w ? white : -white;
     }
 
     /**
      * Counts the number of pawns of same colour on same file.
      *
      * @param s state to evaluate
-     * @param p player whose pawns to count
+     * @param side colour index of the pawns to count
      * @return number of doubled pawns
      */
-    private int doubledPawns(BoardState s, Player p) {
+    private int doubledPawns(Board s, int side) {
         int result = 0, fileSum;
-        Board tempBoard = s.getState();
-        Chessman c;
-
-        for (int i = 0; i <= tempBoard.getMax(); i++) {
-            fileSum = 0;
+        long pawns = s.getPosition()
+                .getPieces(side, Position.PAWN);
 
-            for (int j = 0; j <= tempBoard.getMax(); j++) {
-                c = tempBoard.getMan(i, j);
-                if (c instanceof Pawn && c.getOwner() == p) {
-                    fileSum++;
-                }
-            }
+        for (int i = 0; i < Bitboards.SIZE; i++) {
+            fileSum = Long.bitCount(pawns & Bitboards.file(i));
 
             if (fileSum > 1) {
                 result += fileSum;
@@ -252,39 +772,21 @@ public class AIPlayer extends Player {
      * Counts number of pawns with no friendly neighbour pawns.
      *
      * @param s state to evaluate
-     * @param p player whose pawns we should count
+     * @param side colour index of the pawns to count
      * @return number of isolated pawns
      */
-    private int isolatedPawns(BoardState s, Player p) {
+    private int isolatedPawns(Board s, int side) {
         int result = 0;
-        boolean inc;
-        Chessman b = null;
-        Point[] offsets = {
-            new Point(-1, -1),
-            new Point(0, -1),
-            new Point(+1, -1),
-            new Point(+1, 0),
-            new Point(+1, +1),
-            new Point(0, +1),
-            new Point(-1, +1),
-            new Point(-1, 0)
-        };
-
-        for (Chessman c : s.getState().getMenForPlayer(p)) {
-            if (c instanceof Pawn) {
-                inc = true;
-                for (Point a : offsets) {
-                    b = s.getState().getMan((int) c.getX() + (int) a.getX(),
-                            (int) c.getY() + (int) a.getY());
-                    if (b instanceof Pawn && b.getOwner() == p) {
-                        inc = false;
-                        break;
-                    }
-                }
-                if (inc) {
-                    result++;
-                }
+        long pawns = s.getPosition()
+                .getPieces(side, Position.PAWN);
+        long b = pawns;
+
+        while (b != 0) {
+            if ((Bitboards.kingAttacksFrom(Long.numberOfTrailingZeros(b))
+                    & pawns) == 0) {
+                result++;
             }
+            b &= b - 1;
         }
 
         return result;
@@ -298,20 +800,8 @@ public class AIPlayer extends Player {
      * @param pl player whose moves we should be counting
      * @return number of potential moves
      */
-    private int mobility(BoardState s, Player pl) {
-        int ret = 0;
-        ArrayList<Chessman> pieces = s.getState().getMenForPlayer(pl);
-
-        for (Chessman c : pieces) {
-            if (!c.isAlive()) {
-                continue;
-            }
-            for (Point p : c.getPotentialMoves()) {
-                ret++;
-            }
-        }
-
-        return ret;
+    private int mobility(Board s, Player pl) {
+        return s.countLegalMoves(pl);
     }
 
     /**
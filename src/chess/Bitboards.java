@@ -0,0 +1,391 @@
+package chess;
+
+/**
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public final class Bitboards {
+
+    /**
+     * Squares are numbered y * 8 + x, so bit 0 is (0, 0) in the top left
+     * corner and bit 63 is (7, 7) in the bottom right. Moving "up" the board
+     * (towards y = 0) is a right shift by 8.
+     */
+    public static final int SIZE = 8;
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = 0x8080808080808080L;
+
+    //squares strictly between two squares, and the whole line through
+    //them, for squares sharing a rank, file or diagonal (0 otherwise)
+    private static final long[][] BETWEEN;
+    private static final long[][] LINE;
+
+    //squares a knight, king or pawn of each colour attacks from each square
+    private static final long[] KNIGHT_ATTACKS = new long[SIZE * SIZE];
+    private static final long[] KING_ATTACKS = new long[SIZE * SIZE];
+    private static final long[][] PAWN_ATTACKS = new long[2][SIZE * SIZE];
+
+    //where the search for each square's magic multiplier starts, picked so
+    //each turns up within a thousand tries
+    private static final int[] ROOK_SEEDS = {
+        496, 2, 596, 681, 200, 667, 85, 72, 3, 4, 78, 39, 3, 15, 34,
+        45, 49, 90, 9, 29, 113, 190, 12, 45, 41, 48, 10, 777, 371,
+        428, 15, 101, 49, 11, 120, 39, 194, 428, 4, 54, 46, 127, 84,
+        199, 169, 15, 81, 87, 76, 74, 11, 157, 68, 240, 104, 45, 47,
+        47, 147, 1432, 107, 2381, 16, 9
+    };
+    private static final int[] BISHOP_SEEDS = {
+        6, 1, 1, 1, 1, 4, 1, 32, 3, 1, 6, 4, 1, 1, 2, 5, 1, 5, 15, 3,
+        20, 18, 10, 1, 3, 2, 2, 8, 32, 9, 2, 11, 6, 2, 8, 16, 45, 10,
+        6, 3, 4, 12, 22, 5, 3, 14, 1, 3, 1, 2, 3, 2, 4, 8, 6, 1, 32,
+        5, 3, 1, 2, 1, 3, 6
+    };
+
+    //magic bitboard tables for sliders: the squares whose occupancy matters
+    //to a slider on each square, a multiplier taking every such occupancy
+    //to its own index, and the attacks for each index
+    private static final long[] ROOK_MASK = new long[SIZE * SIZE];
+    private static final long[] ROOK_MAGIC = new long[SIZE * SIZE];
+    private static final int[] ROOK_SHIFT = new int[SIZE * SIZE];
+    private static final long[][] ROOK_ATTACKS = new long[SIZE * SIZE][];
+    private static final long[] BISHOP_MASK = new long[SIZE * SIZE];
+    private static final long[] BISHOP_MAGIC = new long[SIZE * SIZE];
+    private static final int[] BISHOP_SHIFT = new int[SIZE * SIZE];
+    private static final long[][] BISHOP_ATTACKS = new long[SIZE * SIZE][];
+
+    static {
+        int[][] dirs = {{1, 0}, {0, 1}, {1, 1}, {1, -1}};
+        long line;
+        BETWEEN = new long[SIZE * SIZE][SIZE * SIZE];
+        LINE = new long[SIZE * SIZE][SIZE * SIZE];
+
+        for (int from = 0; from < SIZE * SIZE; from++) {
+            for (int[] d : dirs) {
+                line = bit(from) | ray(from, d[0], d[1])
+                        | ray(from, -d[0], -d[1]);
+                fillLine(from, d[0], d[1], line);
+                fillLine(from, -d[0], -d[1], line);
+            }
+        }
+
+        for (int sq = 0; sq < SIZE * SIZE; sq++) {
+            KNIGHT_ATTACKS[sq] = knightAttacks(bit(sq));
+            KING_ATTACKS[sq] = kingAttacks(bit(sq));
+            PAWN_ATTACKS[0][sq] = pawnAttacks(0, bit(sq));
+            PAWN_ATTACKS[1][sq] = pawnAttacks(1, bit(sq));
+        }
+
+        for (int sq = 0; sq < SIZE * SIZE; sq++) {
+            ROOK_MASK[sq] = slowRookAttacks(sq, 0) & ~edges(sq);
+            ROOK_SHIFT[sq] = 64 - Long.bitCount(ROOK_MASK[sq]);
+            ROOK_ATTACKS[sq] = findMagic(sq, ROOK_MASK[sq], ROOK_SHIFT[sq],
+                    ROOK_MAGIC, false, ROOK_SEEDS[sq]);
+            BISHOP_MASK[sq] = slowBishopAttacks(sq, 0) & ~edges(sq);
+            BISHOP_SHIFT[sq] = 64 - Long.bitCount(BISHOP_MASK[sq]);
+            BISHOP_ATTACKS[sq] = findMagic(sq, BISHOP_MASK[sq],
+                    BISHOP_SHIFT[sq], BISHOP_MAGIC, true, BISHOP_SEEDS[sq]);
+        }
+    }
+
+    //edge squares a slider on sq cannot be blocked beyond
+    private static long edges(int sq) {
+        long ranks = 0xFFL | (0xFFL << 56), files = FILE_A | FILE_H;
+        return (ranks & ~(0xFFL << (getY(sq) * SIZE)))
+                | (files & ~file(getX(sq)));
+    }
+
+    /**
+     * Tries random multipliers until one takes every occupancy of mask to an
+     * index where it doesn't clash with an occupancy giving other attacks.
+     * Few bits set makes a good multiplier more likely.
+     *
+     * @param sq square the slider stands on
+     * @param mask squares whose occupancy matters
+     * @param shift 64 less the number of bits in mask
+     * @param magics where to put the multiplier found
+     * @param bishop true for bishop attacks, false for rook
+     * @param seed start of the sequence candidates are drawn from
+     * @return attacks for each index
+     */
+    private static long[] findMagic(int sq, long mask, int shift,
+            long[] magics, boolean bishop, long seed) {
+        int n = 1 << (64 - shift), index, i;
+        long[] occupancy = new long[n], attacks = new long[n];
+        long[] table = new long[n];
+        int[] used = new int[n];
+        long occ = 0, magic, state = seed;
+
+        //every subset of mask, found by counting through its bits
+        for (i = 0; i < n; i++) {
+            occupancy[i] = occ;
+            attacks[i] = bishop ? slowBishopAttacks(sq, occ)
+                    : slowRookAttacks(sq, occ);
+            occ = (occ - mask) & mask;
+        }
+
+        for (int attempt = 1;; attempt++) {
+            magic = -1L;
+            for (int k = 0; k < 3; k++) {
+                //xorshift64*, which is fast and good enough here
+                state ^= state >>> 12;
+                state ^= state << 25;
+                state ^= state >>> 27;
+                magic &= state * 0x2545F4914F6CDD1DL;
+            }
+            if (Long.bitCount((mask * magic) >>> 56) < 6) {
+                continue;
+            }
+            for (i = 0; i < n; i++) {
+                index = (int) ((occupancy[i] * magic) >>> shift);
+                if (used[index] != attempt) {
+                    used[index] = attempt;
+                    table[index] = attacks[i];
+                } else if (table[index] != attacks[i]) {
+                    break;
+                }
+            }
+            if (i == n) {
+                magics[sq] = magic;
+                return table;
+            }
+        }
+    }
+
+    //every square from sq (exclusive) to the edge in direction (dx, dy)
+    private static long ray(int sq, int dx, int dy) {
+        long result = 0;
+        for (int x = getX(sq) + dx, y = getY(sq) + dy; onBoard(x, y);
+                x += dx, y += dy) {
+            result |= bit(square(x, y));
+        }
+        return result;
+    }
+
+    //fills BETWEEN and LINE for every square from sq in direction (dx, dy)
+    private static void fillLine(int sq, int dx, int dy, long line) {
+        long passed = 0;
+        int to;
+        for (int x = getX(sq) + dx, y = getY(sq) + dy; onBoard(x, y);
+                x += dx, y += dy) {
+            to = square(x, y);
+            BETWEEN[sq][to] = passed;
+            LINE[sq][to] = line;
+            passed |= bit(to);
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    /**
+     * @param x horizontal co-ordinate
+     * @param y vertical co-ordinate
+     * @return square index of (x, y)
+     */
+    public static int square(int x, int y) {
+        return y * SIZE + x;
+    }
+
+    /**
+     * @param x horizontal co-ordinate
+     * @param y vertical co-ordinate
+     * @return whether (x, y) lies on an 8x8 board
+     */
+    public static boolean onBoard(int x, int y) {
+        return x >= 0 && x < SIZE && y >= 0 && y < SIZE;
+    }
+
+    public static int getX(int sq) {
+        return sq & 7;
+    }
+
+    public static int getY(int sq) {
+        return sq >>> 3;
+    }
+
+    public static long bit(int sq) {
+        return 1L << sq;
+    }
+
+    /**
+     * @param x file to get
+     * @return mask of every square with horizontal co-ordinate x
+     */
+    public static long file(int x) {
+        return FILE_A << x;
+    }
+
+    /**
+     * @param a one square
+     * @param b another square
+     * @return squares strictly between a and b if they share a line
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * @param a one square
+     * @param b another square
+     * @return every square on the line through a and b, edge to edge
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    public static long up(long b) {
+        return b >>> 8;
+    }
+
+    public static long down(long b) {
+        return b << 8;
+    }
+
+    public static long right(long b) {
+        return (b << 1) & ~FILE_A;
+    }
+
+    public static long left(long b) {
+        return (b >>> 1) & ~FILE_H;
+    }
+
+    /**
+     * @param b squares to spread from
+     * @return every square a knight could reach from any square in b
+     */
+    public static long knightAttacks(long b) {
+        long l1 = left(b), r1 = right(b);
+        long l2 = left(l1), r2 = right(r1);
+        long h1 = l1 | r1, h2 = l2 | r2;
+        return (h1 << 16) | (h1 >>> 16) | (h2 << 8) | (h2 >>> 8);
+    }
+
+    /**
+     * @param b squares to spread from
+     * @return every square a king could reach from any square in b
+     */
+    public static long kingAttacks(long b) {
+        long row = b | left(b) | right(b);
+        return (row | up(row) | down(row)) & ~b;
+    }
+
+    /**
+     * @param side colour index of the attacking pawns
+     * @param b squares the pawns stand on
+     * @return squares the pawns could capture on
+     */
+    public static long pawnAttacks(int side, long b) {
+        if (side == COLOURS.white.ordinal()) {
+            return up(left(b) | right(b));
+        }
+        return down(left(b) | right(b));
+    }
+
+    /**
+     * @param sq square the knight stands on
+     * @return squares the knight attacks
+     */
+    public static long knightAttacksFrom(int sq) {
+        return KNIGHT_ATTACKS[sq];
+    }
+
+    /**
+     * @param sq square the king stands on
+     * @return squares the king attacks
+     */
+    public static long kingAttacksFrom(int sq) {
+        return KING_ATTACKS[sq];
+    }
+
+    /**
+     * @param side colour index of the pawn
+     * @param sq square the pawn stands on
+     * @return squares the pawn could capture on
+     */
+    public static long pawnAttacksFrom(int side, int sq) {
+        return PAWN_ATTACKS[side][sq];
+    }
+
+    /**
+     * @param sq square the rook stands on
+     * @param occupied every occupied square on the board
+     * @return squares the rook reaches, up to and including blockers
+     */
+    public static long rookAttacks(int sq, long occupied) {
+        return ROOK_ATTACKS[sq][(int) (((occupied & ROOK_MASK[sq])
+                * ROOK_MAGIC[sq]) >>> ROOK_SHIFT[sq])];
+    }
+
+    /**
+     * @param sq square the bishop stands on
+     * @param occupied every occupied square on the board
+     * @return squares the bishop reaches, up to and including blockers
+     */
+    public static long bishopAttacks(int sq, long occupied) {
+        return BISHOP_ATTACKS[sq][(int) (((occupied & BISHOP_MASK[sq])
+                * BISHOP_MAGIC[sq]) >>> BISHOP_SHIFT[sq])];
+    }
+
+    //walks each ray to fill the magic tables
+    private static long slowRookAttacks(int sq, long occupied) {
+        long from = bit(sq), result = 0, b;
+
+        for (b = up(from); b != 0; b = up(b)) {
+            result |= b;
+            if ((b & occupied) != 0) {
+                break;
+            }
+        }
+        for (b = down(from); b != 0; b = down(b)) {
+            result |= b;
+            if ((b & occupied) != 0) {
+                break;
+            }
+        }
+        for (b = left(from); b != 0; b = left(b)) {
+            result |= b;
+            if ((b & occupied) != 0) {
+                break;
+            }
+        }
+        for (b = right(from); b != 0; b = right(b)) {
+            result |= b;
+            if ((b & occupied) != 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private static long slowBishopAttacks(int sq, long occupied) {
+        long from = bit(sq), result = 0, b;
+
+        for (b = up(left(from)); b != 0; b = up(left(b))) {
+            result |= b;
+            if ((b & occupied) != 0) {
+                break;
+            }
+        }
+        for (b = up(right(from)); b != 0; b = up(right(b))) {
+            result |= b;
+            if ((b & occupied) != 0) {
+                break;
+            }
+        }
+        for (b = down(left(from)); b != 0; b = down(left(b))) {
+            result |= b;
+            if ((b & occupied) != 0) {
+                break;
+            }
+        }
+        for (b = down(right(from)); b != 0; b = down(right(b))) {
+            result |= b;
+            if ((b & occupied) != 0) {
+                break;
+            }
+        }
+        return result;
+    }
+}
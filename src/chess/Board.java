@@ -2,7 +2,7 @@ package chess;
 
 import java.awt.Point;
 import java.util.ArrayList;
-import java.util.UUID;
+import java.util.Arrays;
 
 /**
  * @author Alexis Varsava <av11sl@brocku.ca>
@@ -11,9 +11,30 @@ import java.util.UUID;
  */
 public class Board {
 
+    /**
+     * More moves than any position has, the most known being 218.
+     */
+    public static final int MAX_MOVES = 256;
+
+    //one shared, never modified, point per square for pieces moved by
+    //makeMove() so that making a move allocates nothing
+    private static final Point[] POINTS;
+
+    static {
+        POINTS = new Point[Bitboards.SIZE * Bitboards.SIZE];
+        for (int sq = 0; sq < POINTS.length; sq++) {
+            POINTS[sq] = new Point(Bitboards.getX(sq), Bitboards.getY(sq));
+        }
+    }
+
     private final Point SHADOW_REALM;
     private int boardSize;
     private ArrayList<Chessman> chessmen;
+    //square-indexed mailbox, null where the square is empty
+    private Chessman[] squares;
+    private Position position;
+    private UndoRecord[] undoStack;
+    private int undoSize;
     private Chess theChess;
 
     /**
@@ -24,6 +45,9 @@ public class Board {
     public Board(Chess c) {
         boardSize = 8;
         chessmen = new ArrayList<>();
+        squares = new Chessman[Bitboards.SIZE * Bitboards.SIZE];
+        position = new Position();
+        undoStack = new UndoRecord[0];
         SHADOW_REALM = new Point(-1, -1);
         theChess = c;
     }
@@ -31,13 +55,17 @@ public class Board {
     /**
      * This constructor is used for debugging purposes.
      *
-     * Creates a board with a custom size.
+     * Creates a board with a custom size. The bitboards behind the board are
+     * 8x8, so size must not be larger than that.
      *
      * @param size resulting board will be size * size
      */
     public Board(int size) {
         boardSize = size;
         chessmen = new ArrayList<>();
+        squares = new Chessman[Bitboards.SIZE * Bitboards.SIZE];
+        position = new Position();
+        undoStack = new UndoRecord[0];
         SHADOW_REALM = new Point(-1, -1);
     }
 
@@ -50,10 +78,16 @@ public class Board {
         boardSize = b.boardSize;
         SHADOW_REALM = b.SHADOW_REALM;
         chessmen = new ArrayList<>();
+        squares = new Chessman[Bitboards.SIZE * Bitboards.SIZE];
+        position = new Position(b.position);
+        undoStack = new UndoRecord[0];
         for (Chessman c : b.getChessmen()) {
             Chessman n = (Chessman) c.clone();
             n.setBoard(this);
             chessmen.add(n);
+            if (n.isAlive()) {
+                squares[n.getSquare()] = n;
+            }
         }
     }
 
@@ -66,6 +100,15 @@ public class Board {
         return theChess;
     }
 
+    /**
+     * Gets the bitboards describing where every piece stands.
+     *
+     * @return position backing this board
+     */
+    public Position getPosition() {
+        return position;
+    }
+
     /**
      * The SHADOW_REALM constant is the location of any piece removed from the
      * board.
@@ -86,28 +129,25 @@ public class Board {
     }
 
     /**
-     * Gets a chess piece with a particular UUID
+     * Gets a chess piece with a particular index
      *
-     * @param id UUID to search for
-     * @return chessman with matching UUID
+     * @param index index to look up, as given by Chessman.getIndex()
+     * @return chessman with matching index, or null if there is none
      */
-    public Chessman getManFromUUID(UUID id) {
-        for (Chessman c : getChessmen()) {
-            if (c.getID() == id) {
-                return c;
-            }
+    public Chessman getManFromIndex(int index) {
+        if (index < 0 || index >= chessmen.size()) {
+            return null;
         }
-        return null;
+        return chessmen.get(index);
     }
 
     /**
-     * Adds a piece to the game after assigning it a UUID.
+     * Adds a piece to the game, which gives it the next index.
      *
      * @param m man to add
      * @param p location on which to add it
      */
     public void addMan(Chessman m, Point p) {
-        m.setID(UUID.randomUUID());
         placeMan(m, p);
     }
 
@@ -116,14 +156,28 @@ public class Board {
      *
      * @param m man to add
      * @param p location on which to add it
+     * @throws IllegalArgumentException if p is not on the board
      */
     public void placeMan(Chessman m, Point p) {
-        m.setBoard(this);
-        m.setLoc(p);
-        if (!getChessmen().contains(m)) {
+        if (!Bitboards.onBoard(p.x, p.y)) {
+            throw new IllegalArgumentException("Cannot place " + m
+                    + " off the board at " + p);
+        }
+        if (getManFromIndex(m.getIndex()) == m) {
+            if (m.isAlive()) {
+                position.remove(m.getOwner().getSide(), m.getType(),
+                        m.getSquare());
+                squares[m.getSquare()] = null;
+            }
+        } else {
+            m.setIndex(chessmen.size());
             getChessmen().add(m);
         }
-
+        m.setBoard(this);
+        m.setLoc(p);
+        position.add(m.getOwner().getSide(), m.getType(), m.getSquare());
+        squares[m.getSquare()] = m;
+        position.setCastling(getCastlingRights());
     }
 
     /**
@@ -134,7 +188,10 @@ public class Board {
      * @return chessman if found, null otherwise
      */
     public Chessman getMan(int x, int y) {
-        return getMan(new Point(x, y));
+        if (!Bitboards.onBoard(x, y)) {
+            return null;
+        }
+        return squares[Bitboards.square(x, y)];
     }
 
     /**
@@ -144,26 +201,21 @@ public class Board {
      * @return piece at position if it is there, else null
      */
     public Chessman getMan(Point p) {
-        for (Chessman c : getChessmen()) {
-            if (c.getLoc().equals(p) && c.isAlive()) {
-                return c;
-            }
-        }
-        return null;
+        return getMan(p.x, p.y);
     }
 
     /**
      * Returns all chess pieces on the board belonging to a player
      *
      * @param p player whose pieces we should find
-     * @return list of chess pieces
+     * @return list of chess pieces still on the board, in square order
      */
     public ArrayList<Chessman> getMenForPlayer(Player p) {
-        ArrayList<Chessman> list = new ArrayList<>();
-        for (Chessman c : chessmen) {
-            if (c.getOwner() == p) {
-                list.add(c);
-            }
+        long men = position.getOccupied(p.getSide());
+        ArrayList<Chessman> list = new ArrayList<>(Long.bitCount(men));
+        while (men != 0) {
+            list.add(squares[Long.numberOfTrailingZeros(men)]);
+            men &= men - 1;
         }
         return list;
     }
@@ -186,8 +238,11 @@ public class Board {
      * @return true if being attacked, false if not
      */
     public boolean isAttacked(int x, int y, Player defender) {
-        Point p = new Point(x, y);
-        return isAttacked(p, defender);
+        if (!Bitboards.onBoard(x, y)) {
+            return false;
+        }
+        return position.isAttacked(Bitboards.square(x, y),
+                1 - defender.getSide());
     }
 
     /**
@@ -198,17 +253,115 @@ public class Board {
      * @return true if being attacked, false if not
      */
     public boolean isAttacked(Point p, Player defender) {
-        ArrayList<Point> spaces = new ArrayList();
-        for (Chessman man : getChessmen()) {
-            if (man.getOwner() != defender) {
-                spaces.addAll(man.getAggressiveMoveSet());
-                if (spaces.contains(p)) {
-                    return true;
+        return isAttacked(p.x, p.y, defender);
+    }
+
+    /**
+     * Converts a set of squares into a list of points.
+     *
+     * @param bits bitboard of squares
+     * @return one point per square, in square order
+     */
+    public ArrayList<Point> toPoints(long bits) {
+        ArrayList<Point> list = new ArrayList<>(Long.bitCount(bits));
+        int sq;
+        while (bits != 0) {
+            sq = Long.numberOfTrailingZeros(bits);
+            list.add(new Point(Bitboards.getX(sq), Bitboards.getY(sq)));
+            bits &= bits - 1;
+        }
+        return list;
+    }
+
+    /**
+     * Works out where a piece may legally move. Moves which would leave the
+     * owner's king attacked are removed using the pieces checking the king
+     * and the pieces pinned against it, rather than by trying each move.
+     *
+     * @param m piece to move
+     * @return bitboard of legal destination squares
+     */
+    public long getLegalMoveBits(Chessman m) {
+        int side = m.getOwner().getSide();
+        return getLegalMoveBits(m, position.getCheckers(side),
+                position.getPinned(side));
+    }
+
+    /**
+     * Counts a player's legal moves without listing them.
+     *
+     * @param p player whose moves to count
+     * @return number of legal moves
+     */
+    public int countLegalMoves(Player p) {
+        int side = p.getSide(), result = 0;
+        long checkers = position.getCheckers(side);
+        long pinned = position.getPinned(side);
+        long men = position.getOccupied(side);
+        while (men != 0) {
+            result += Long.bitCount(getLegalMoveBits(
+                    squares[Long.numberOfTrailingZeros(men)], checkers,
+                    pinned));
+            men &= men - 1;
+        }
+        return result;
+    }
+
+    private long getLegalMoveBits(Chessman m, long checkers, long pinned) {
+        int side = m.getOwner().getSide(), enemy = 1 - side;
+        int sq = m.getSquare(), king = position.getKingSquare(side);
+        int ep = position.getEnPassant(), captured;
+        long moves = m.getAggressiveMoveBits() | m.getMoveBits();
+        long occ = position.getOccupied(), result = 0, allowed, b;
+
+        if (king < 0) {
+            return moves;
+        }
+
+        //the king may go anywhere not attacked once it has stepped away,
+        //so sliders are looked through its current square
+        if (sq == king) {
+            while (moves != 0) {
+                b = moves & -moves;
+                if ((position.getAttackers(Long.numberOfTrailingZeros(b),
+                        occ ^ Bitboards.bit(king))
+                        & position.getOccupied(enemy)) == 0) {
+                    result |= b;
                 }
+                moves ^= b;
             }
+            return result;
         }
 
-        return false;
+        //in double check only the king can move
+        if ((checkers & (checkers - 1)) != 0) {
+            return 0;
+        }
+        allowed = -1L;
+        //in check, the checker must be taken or the check blocked
+        if (checkers != 0) {
+            allowed = checkers | Bitboards.between(king,
+                    Long.numberOfTrailingZeros(checkers));
+        }
+        //a pinned piece must stay between its king and the pinner
+        if ((pinned & Bitboards.bit(sq)) != 0) {
+            allowed &= Bitboards.line(king, sq);
+        }
+        result = moves & allowed;
+
+        //en passant moves two pieces off their squares at once, so it is
+        //simply tried out on the bitboards
+        if (m instanceof Pawn && ep >= 0 && (moves & Bitboards.bit(ep)) != 0) {
+            result &= ~Bitboards.bit(ep);
+            captured = Bitboards.square(Bitboards.getX(ep), m.getY());
+            occ ^= Bitboards.bit(sq) | Bitboards.bit(ep)
+                    | Bitboards.bit(captured);
+            if ((position.getAttackers(king, occ) & position.getOccupied(enemy)
+                    & ~Bitboards.bit(captured)) == 0) {
+                result |= Bitboards.bit(ep);
+            }
+        }
+        return result;
     }
 
     /**
@@ -219,53 +372,50 @@ public class Board {
      * @return true if board is in ending state
      */
     public boolean endCheck(Player activePlayer, boolean verbose) {
-        if (isCheckmate(activePlayer)) {
+        int side = activePlayer.getSide();
+        if (hasAnyLegalMove(side)) {
+            return false;
+        }
+        if (inCheck(side)) {
             if (verbose) {
                 System.out.println(activePlayer.getColour()
                         + " player is checkmated! GAME OVER");
             }
-            return true;
-        }
-        if (isStalemate(activePlayer)) {
-            if (verbose) {
-                System.out.println("Stalemate, " + activePlayer.getColour()
-                        + " has no more valid moves!");
-            }
-            return true;
+        } else if (verbose) {
+            System.out.println("Stalemate, " + activePlayer.getColour()
+                    + " has no more valid moves!");
         }
-        return false;
+        return true;
     }
 
-    private boolean isCheckmate(Player activePlayer) {
-        King k = activePlayer.getKing();
-        boolean checkmate = false;
-        ArrayList<Point> moves = new ArrayList<>();
-
-        //if king is attacked
-        if (isAttacked(k.getLoc(), activePlayer)) {
-            //and activePlayer has no valid moves
-            for (Chessman c : getMenForPlayer(activePlayer)) {
-                moves.addAll(c.getPotentialMoves());
-            }
-            if (moves.isEmpty()) {
-                checkmate = true;
-            }
-        }
-
-        return checkmate;
+    /**
+     * @param side colour index of the king to test
+     * @return true if the king is attacked, false if not or if there is no
+     * king of that colour
+     */
+    public boolean inCheck(int side) {
+        int king = position.getKingSquare(side);
+        return king >= 0 && position.isAttacked(king, 1 - side);
     }
 
-    //returns true if Player has no legal moves
-    private boolean isStalemate(Player activePlayer) {
-        ArrayList<Point> list = new ArrayList<>();
-
-        for (Chessman m : getMenForPlayer(activePlayer)) {
-            if (m.isAlive()) {
-                list.addAll(m.getPotentialMoves());
+    /**
+     * Looks for any legal move, stopping at the first piece which has one.
+     *
+     * @param side colour index of the side to move
+     * @return false if the side is checkmated or stalemated
+     */
+    public boolean hasAnyLegalMove(int side) {
+        long checkers = position.getCheckers(side);
+        long pinned = position.getPinned(side);
+        long men = position.getOccupied(side);
+        while (men != 0) {
+            if (getLegalMoveBits(squares[Long.numberOfTrailingZeros(men)],
+                    checkers, pinned) != 0) {
+                return true;
             }
+            men &= men - 1;
         }
-
-        return list.isEmpty();
+        return false;
     }
 
     /**
@@ -299,7 +449,14 @@ public class Board {
      * @param y vertical co-ordinate
      */
     public void clearPlace(int x, int y) {
-        clearPlace(new Point(x, y));
+        Chessman m = getMan(x, y);
+        if (m != null) {
+            position.remove(m.getOwner().getSide(), m.getType(),
+                    m.getSquare());
+            squares[m.getSquare()] = null;
+            m.setLoc(SHADOW_REALM);
+            position.setCastling(getCastlingRights());
+        }
     }
 
     /**
@@ -307,20 +464,344 @@ public class Board {
      * @param p position to clear
      */
     public void clearPlace(Point p) {
-        Chessman m = getMan(p);
-        if (m != null) {
-            m.setLoc(SHADOW_REALM);
-        }
+        clearPlace(p.x, p.y);
     }
 
     /**
-     * Enacts a board change by finding the right piece by UUID and
-     * forcing its movement to its end position.
+     * Enacts a board change made on a copy of this board, by packing it
+     * against this board and making it here. Unlike makeMove(BoardChange)
+     * no piece of the change is placed on this board, so a pawn promotes
+     * to a new piece of the type it became on the copy.
      * 
-     * @param bc board change to enact
+     * @param bc board change to enact, made on a copy of this board as it
+     * stands now, which cannot be taken back
      */
     public void moveFromChange(BoardChange bc) {
-        Chessman toMove = getManFromUUID(bc.getChessman().getID());
-        toMove.forceMove(bc.getEnd());
+        makeMove(toMove(bc));
+        clearUndo();
+    }
+
+    /**
+     * Forgets the moves made so far, so they can no longer be taken back.
+     * Moves the game has committed to are never unmade, so this keeps the
+     * undo stack from holding the whole game.
+     */
+    public void clearUndo() {
+        undoSize = 0;
+    }
+
+    /**
+     * Carries out a move, including the rook's half of castling, en passant
+     * captures and promotion, and records what is needed to take it back
+     * with unmakeMove(). The move is not checked for legality.
+     *
+     * @param bc move to make, whose chessman must be on this board
+     */
+    public void makeMove(BoardChange bc) {
+        makeMove(toMove(bc), bc.getPromotion());
+    }
+
+    /**
+     * Carries out a move as makeMove(BoardChange) does.
+     *
+     * @param move move to make, as packed by Move
+     */
+    public void makeMove(int move) {
+        makeMove(move, null);
+    }
+
+    private void makeMove(int move, Chessman replacement) {
+        int from = Move.getFrom(move), to = Move.getTo(move);
+        int dir, x, y = Bitboards.getY(to);
+        Chessman m = squares[from];
+        UndoRecord u = pushUndo();
+
+        u.piece = m;
+        u.from = from;
+        u.to = to;
+        u.firstMove = m.firstMove();
+        u.enPassant = position.getEnPassant();
+        u.castling = position.getCastling();
+        u.captured = null;
+        u.captureSquare = to;
+        u.rook = null;
+        u.promoted = null;
+        position.setEnPassant(-1);
+
+        if ((move & Move.CAPTURE) != 0) {
+            //en passant takes the pawn beside the moving pawn's start
+            if ((move & Move.EN_PASSANT) != 0) {
+                u.captureSquare = Bitboards.square(Bitboards.getX(to),
+                        Bitboards.getY(from));
+            }
+            u.captured = squares[u.captureSquare];
+            lift(u.captured);
+            u.captured.setLoc(SHADOW_REALM);
+        }
+
+        lift(m);
+        m.setFirstMove(false);
+        if ((move & Move.PROMOTION) != 0) {
+            if (replacement == null) {
+                replacement = promote(m, Move.getPromotion(move));
+            }
+            m.setLoc(SHADOW_REALM);
+            replacement.setBoard(this);
+            replacement.setIndex(chessmen.size());
+            chessmen.add(replacement);
+            drop(replacement, to);
+            u.promoted = replacement;
+        } else {
+            drop(m, to);
+        }
+
+        if ((move & Move.DOUBLE_PUSH) != 0) {
+            position.setEnPassant((from + to) / 2);
+        } else if ((move & Move.CASTLE) != 0) {
+            //the rook is the first piece past the king's new square, and
+            //it jumps over to the square the king passed through
+            dir = to > from ? 1 : -1;
+            x = Bitboards.getX(to) + dir;
+            while (Bitboards.onBoard(x, y) && getMan(x, y) == null) {
+                x += dir;
+            }
+            u.rook = getMan(x, y);
+            if (u.rook != null) {
+                u.rookFrom = u.rook.getSquare();
+                u.rookTo = to - dir;
+                u.rookFirstMove = u.rook.firstMove();
+                lift(u.rook);
+                drop(u.rook, u.rookTo);
+                u.rook.setFirstMove(false);
+            }
+        }
+        position.setCastling(getCastlingRights());
+        position.setSideToMove(1 - position.getSideToMove());
+    }
+
+    /**
+     * Packs a move on this board into an int. The move is read from its
+     * start and end points, so it may have been made on another copy of
+     * the board already.
+     *
+     * @param bc move whose start square holds its chessman on this board
+     * @return the same move as packed by Move
+     */
+    public int toMove(BoardChange bc) {
+        Chessman m = bc.getChessman();
+        Point start = bc.getStart(), end = bc.getEnd();
+        int from = Bitboards.square(start.x, start.y);
+        int to = Bitboards.square(end.x, end.y);
+        int type = m.getType(), flags = 0, move;
+        Chessman promotion = bc.getPromotion();
+
+        if (type == Position.PAWN
+                && Math.abs(to - from) == 2 * Bitboards.SIZE) {
+            flags = Move.DOUBLE_PUSH;
+        } else if (type == Position.PAWN && to == position.getEnPassant()) {
+            flags = Move.EN_PASSANT;
+        } else if (type == Position.KING && Math.abs(to - from) == 2) {
+            flags = Move.CASTLE;
+        }
+        move = Move.create(from, to, type, flags);
+        if (flags == Move.EN_PASSANT) {
+            move = Move.capturing(move, Position.PAWN);
+        } else if (squares[to] != null) {
+            move = Move.capturing(move, squares[to].getType());
+        }
+        if (type == Position.PAWN && end.y == m.getOwner().getOppositeSide()) {
+            move = Move.promoting(move, promotion == null
+                    ? Position.QUEEN : promotion.getType());
+        }
+        return move;
+    }
+
+    /**
+     * Unpacks a move into a BoardChange, for handing back to the game.
+     *
+     * @param move move on this board, as packed by Move
+     * @return the same move
+     */
+    public BoardChange toChange(int move) {
+        Chessman m = squares[Move.getFrom(move)];
+        int to = Move.getTo(move);
+        BoardChange result = new BoardChange(m);
+        result.setEnd(new Point(Bitboards.getX(to), Bitboards.getY(to)));
+        if ((move & Move.PROMOTION) != 0) {
+            result.setPromotion(promote(m, Move.getPromotion(move)));
+        }
+        return result;
+    }
+
+    /**
+     * Lists the legal moves of one side, piece by piece in the order the
+     * pieces were added. A pawn reaching the far side gives one move for
+     * each piece it may become, queen first.
+     *
+     * @param side colour index of the side to move
+     * @param moves where to put the moves, with room for MAX_MOVES
+     * @param quiet whether to list moves which capture nothing
+     * @return number of moves listed
+     */
+    public int generateMoves(int side, int[] moves, boolean quiet) {
+        long checkers = position.getCheckers(side);
+        long pinned = position.getPinned(side);
+        long targets = position.getOccupied(1 - side), bits;
+        int ep = position.getEnPassant(), n = 0, from, to, type, flags;
+        int far = side == COLOURS.white.ordinal() ? 0 : getMax(), move;
+        Chessman c;
+
+        //indexed rather than iterated, so listing moves allocates nothing
+        for (int i = 0; i < chessmen.size(); i++) {
+            c = chessmen.get(i);
+            if (!c.isAlive() || c.getOwner().getSide() != side) {
+                continue;
+            }
+            from = c.getSquare();
+            type = c.getType();
+            bits = getLegalMoveBits(c, checkers, pinned);
+            if (!quiet) {
+                bits &= type == Position.PAWN && ep >= 0
+                        ? targets | Bitboards.bit(ep) : targets;
+            }
+            while (bits != 0) {
+                to = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                flags = 0;
+                if (type == Position.PAWN) {
+                    if (Math.abs(to - from) == 2 * Bitboards.SIZE) {
+                        flags = Move.DOUBLE_PUSH;
+                    } else if (to == ep) {
+                        flags = Move.EN_PASSANT;
+                    }
+                } else if (type == Position.KING
+                        && Math.abs(to - from) == 2) {
+                    flags = Move.CASTLE;
+                }
+                move = Move.create(from, to, type, flags);
+                if (flags == Move.EN_PASSANT) {
+                    move = Move.capturing(move, Position.PAWN);
+                } else if (squares[to] != null) {
+                    move = Move.capturing(move, squares[to].getType());
+                }
+                if (type == Position.PAWN && Bitboards.getY(to) == far) {
+                    moves[n++] = Move.promoting(move, Position.QUEEN);
+                    moves[n++] = Move.promoting(move, Position.ROOK);
+                    moves[n++] = Move.promoting(move, Position.BISHOP);
+                    moves[n++] = Move.promoting(move, Position.KNIGHT);
+                } else {
+                    moves[n++] = move;
+                }
+            }
+        }
+        return n;
+    }
+
+    //the piece a pawn becomes on reaching the far side
+    private static Chessman promote(Chessman pawn, int type) {
+        switch (type) {
+            case Position.KNIGHT:
+                return new Knight(pawn);
+            case Position.BISHOP:
+                return new Bishop(pawn);
+            case Position.ROOK:
+                return new Rook(pawn);
+            default:
+                return new Queen(pawn);
+        }
+    }
+
+    /**
+     * Takes back the last move made with makeMove().
+     */
+    public void unmakeMove() {
+        UndoRecord u = undoStack[--undoSize];
+        Chessman m = u.piece;
+
+        if (u.promoted != null) {
+            lift(u.promoted);
+            u.promoted.setLoc(SHADOW_REALM);
+            //moves are taken back in reverse order, so the replacement is
+            //always the last piece added
+            chessmen.remove(chessmen.size() - 1);
+        } else {
+            lift(m);
+        }
+        drop(m, u.from);
+        m.setFirstMove(u.firstMove);
+
+        if (u.rook != null) {
+            lift(u.rook);
+            drop(u.rook, u.rookFrom);
+            u.rook.setFirstMove(u.rookFirstMove);
+        }
+        if (u.captured != null) {
+            drop(u.captured, u.captureSquare);
+        }
+        position.setEnPassant(u.enPassant);
+        position.setCastling(u.castling);
+        position.setSideToMove(1 - position.getSideToMove());
+
+        u.piece = null;
+        u.captured = null;
+        u.rook = null;
+        u.promoted = null;
+    }
+
+    /**
+     * Works out castling rights from the pieces in the corners. A King
+     * keeps the right to castle towards a Rook while neither has moved.
+     *
+     * @return CASTLE_ flags, as kept by Position
+     */
+    private int getCastlingRights() {
+        int rights = 0;
+        if (cornerRookUnmoved(getMax(), getMax(), COLOURS.white)) {
+            rights |= Position.CASTLE_WHITE_RIGHT;
+        }
+        if (cornerRookUnmoved(0, getMax(), COLOURS.white)) {
+            rights |= Position.CASTLE_WHITE_LEFT;
+        }
+        if (cornerRookUnmoved(getMax(), 0, COLOURS.black)) {
+            rights |= Position.CASTLE_BLACK_RIGHT;
+        }
+        if (cornerRookUnmoved(0, 0, COLOURS.black)) {
+            rights |= Position.CASTLE_BLACK_LEFT;
+        }
+        return rights;
+    }
+
+    private boolean cornerRookUnmoved(int x, int y, COLOURS c) {
+        Chessman r = getMan(x, y);
+        long king = position.getPieces(c.ordinal(), Position.KING);
+        if (!(r instanceof Rook) || !r.firstMove()
+                || r.getOwner().getColour() != c || king == 0) {
+            return false;
+        }
+        return squares[Long.numberOfTrailingZeros(king)].firstMove();
+    }
+
+    private UndoRecord pushUndo() {
+        if (undoSize == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoSize * 2 + 16);
+            for (int i = undoSize; i < undoStack.length; i++) {
+                undoStack[i] = new UndoRecord();
+            }
+        }
+        return undoStack[undoSize++];
+    }
+
+    //takes a piece off its square without touching its location
+    private void lift(Chessman m) {
+        int sq = m.getSquare();
+        position.remove(m.getOwner().getSide(), m.getType(), sq);
+        squares[sq] = null;
+    }
+
+    //puts a piece which is not on the board onto a square
+    private void drop(Chessman m, int sq) {
+        m.setLoc(POINTS[sq]);
+        position.add(m.getOwner().getSide(), m.getType(), sq);
+        squares[sq] = m;
     }
 }
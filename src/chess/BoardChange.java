@@ -12,6 +12,7 @@ public class BoardChange {
     private Chessman piece;
     private Point prevLoc;
     private Point curLoc;
+    private Chessman promotion;
 
     public BoardChange(Chessman c) {
         piece = c;
@@ -30,6 +31,46 @@ public class BoardChange {
         return curLoc;
     }
 
+    public Point getStart() {
+        return prevLoc;
+    }
+
+    /**
+     * @return start and end squares packed as start * 64 + end
+     */
+    public int getSquares() {
+        return (Bitboards.square(prevLoc.x, prevLoc.y) << 6)
+                | Bitboards.square(curLoc.x, curLoc.y);
+    }
+
+    /**
+     * @return piece a pawn becomes on reaching the far side, or null to
+     * promote to a queen
+     */
+    public Chessman getPromotion() {
+        return promotion;
+    }
+
+    public void setPromotion(Chessman c) {
+        promotion = c;
+    }
+
+    /**
+     * @return move in coordinate notation, such as e2e4 or a7a8q
+     */
+    @Override
+    public String toString() {
+        String result = square(prevLoc) + square(curLoc);
+        if (promotion != null) {
+            result += "pnbrqk".charAt(promotion.getType());
+        }
+        return result;
+    }
+
+    private static String square(Point p) {
+        return "" + (char) ('a' + p.x) + (Bitboards.SIZE - p.y);
+    }
+
     /**
      * @return The difference on the x-axis between the two 
      */
@@ -14,6 +14,11 @@ public class BoardState {
     private BoardChange change;
     private Player activePlayer;
 
+    /**
+     * @param b board as it stood before the change
+     * @param c change made from it, or null
+     * @param p player who made the change
+     */
     public BoardState(Board b, BoardChange c, Player p) {
         state = new Board(b); //cloning b
         change = c;
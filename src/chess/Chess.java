@@ -14,6 +14,12 @@ import java.util.Stack;
 
 public class Chess {
 
+    /**
+     * Standard starting position in Forsyth-Edwards Notation.
+     */
+    public static final String START_FEN
+            = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
     final int NUM_PLAYERS;
     static BufferedReader reader;
     Board theBoard;
@@ -44,6 +50,27 @@ public class Chess {
         run();
     }
 
+    /**
+     * Sets up a position without prompting or playing, for the perft and
+     * divide commands. Both players are human so nobody is asked for a search
+     * depth, and neither is ever asked to move.
+     *
+     * @param fen position in Forsyth-Edwards Notation
+     */
+    public Chess(String fen) {
+        theBoard = new Board(this);
+        this.NUM_PLAYERS = 2;
+        players = new ArrayList<>();
+        history = new Stack<>();
+        players.add(new HumanPlayer(COLOURS.white, theBoard));
+        players.add(new HumanPlayer(COLOURS.black, theBoard));
+        fenBoard(fen);
+    }
+
+    public Board getBoard() {
+        return theBoard;
+    }
+
     private void greeting() {
         System.out.println("Let's Play Chess!");
     }
@@ -86,6 +113,7 @@ public class Chess {
     private void run() {
         boolean run = true;
         BoardState toAdd;
+        Board before;
         int idx = 0;
         while (run) {
             Player current = players.get(idx);
@@ -99,7 +127,9 @@ public class Chess {
             } else {
                 current.resetFlags();
 
-                toAdd = new BoardState(theBoard, current.movePiece(), current);
+                before = new Board(theBoard);
+                toAdd = new BoardState(before, current.movePiece(), current);
+                theBoard.clearUndo();
                 history.push(toAdd);
 
                 idx = ++idx % players.size();
@@ -136,6 +166,82 @@ public class Chess {
         theBoard.addMan(new Rook(players.get(1)), new Point(7, 0));
     }
 
+    /**
+     * Sets up the board from Forsyth-Edwards Notation. The move counters are
+     * ignored. Castling rights are given to the pieces as whether they have
+     * moved yet.
+     *
+     * @param fen position to set up
+     */
+    private void fenBoard(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        String rights = fields.length > 2 ? fields[2] : "-";
+        int x = 0, y = 0;
+        Player p;
+        Chessman m;
+
+        for (char c : fields[0].toCharArray()) {
+            if (c == '/') {
+                y++;
+                x = 0;
+                continue;
+            }
+            if (Character.isDigit(c)) {
+                x += c - '0';
+                continue;
+            }
+            p = players.get(Character.isUpperCase(c) ? 0 : 1);
+            switch (Character.toLowerCase(c)) {
+                case 'p':
+                    m = new Pawn(p);
+                    //only a pawn which hasn't moved stands on its second rank
+                    m.setFirstMove(y == (p == players.get(0)
+                            ? theBoard.getMax() - 1 : 1));
+                    break;
+                case 'n':
+                    m = new Knight(p);
+                    break;
+                case 'b':
+                    m = new Bishop(p);
+                    break;
+                case 'r':
+                    m = new Rook(p);
+                    m.setFirstMove(hasRight(rights, p, x == 0 ? "Q" : "K")
+                            && (x == 0 || x == theBoard.getMax())
+                            && y == theBoard.getMax() - p.getOppositeSide());
+                    break;
+                case 'q':
+                    m = new Queen(p);
+                    break;
+                case 'k':
+                    m = new King(p);
+                    m.setFirstMove(hasRight(rights, p, "Q")
+                            || hasRight(rights, p, "K"));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Bad piece in FEN: "
+                            + c);
+            }
+            theBoard.addMan(m, new Point(x, y));
+            x++;
+        }
+
+        if (fields.length > 1 && fields[1].equals("b")) {
+            theBoard.getPosition().setSideToMove(COLOURS.black.ordinal());
+        }
+        if (fields.length > 3 && !fields[3].equals("-")) {
+            theBoard.getPosition().setEnPassant(Bitboards.square(
+                    fields[3].charAt(0) - 'a', '8' - fields[3].charAt(1)));
+        }
+    }
+
+    //whether a FEN castling field lets p castle on the side given, in
+    //white's letters
+    private boolean hasRight(String rights, Player p, String side) {
+        return rights.contains(p == players.get(0)
+                ? side : side.toLowerCase());
+    }
+
     //move white King to left or right to trigger checkmate
     private void checkMateTest() {
         theBoard.addMan(new King(players.get(0)), new Point(2, 2));
@@ -168,10 +274,28 @@ public class Chess {
 
     /**
      * Main method, creates new chess object, launching game.
+     *
+     * Given "perft" or "divide", a depth and optionally a FEN, counts moves
+     * instead; see Perft. Given "uci", plays through the Universal Chess
+     * Interface instead; see Uci. Given "book", a file of lines of play and
+     * a file name, builds an opening book instead; see OpeningBook.
      * 
-     * @param args unused
+     * @param args command line arguments
      */
     public static void main(String[] args) {
+        if (args.length > 0
+                && (args[0].equals("perft") || args[0].equals("divide"))) {
+            Perft.main(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("uci")) {
+            Uci.main(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("book")) {
+            OpeningBook.main(args);
+            return;
+        }
         Chess c = new Chess();
     }
 
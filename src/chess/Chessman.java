@@ -2,7 +2,6 @@ package chess;
 
 import java.awt.Point;
 import java.util.ArrayList;
-import java.util.UUID;
 
 /**
  * @author Alexis Varsava <av11sl@brocku.ca>
@@ -13,9 +12,11 @@ import java.util.UUID;
 public abstract class Chessman implements Cloneable {
 
     /**
-     * Unique identifier for each piece
+     * Unique identifier for each piece: where it is in the board's list of
+     * pieces, which is the same on every copy of the board. -1 until the
+     * piece is put on a board.
      */
-    protected UUID uuid;
+    protected int index = -1;
 
     /**
      * the board on which these pieces reside
@@ -58,12 +59,12 @@ public abstract class Chessman implements Cloneable {
         firstMove = true;
     }
 
-    public UUID getID() {
-        return uuid;
+    public int getIndex() {
+        return index;
     }
 
-    public void setID(UUID n) {
-        uuid = n;
+    public void setIndex(int i) {
+        index = i;
     }
 
     public Player getOwner() {
@@ -82,6 +83,18 @@ public abstract class Chessman implements Cloneable {
         return location;
     }
 
+    /**
+     * @return index of the piece's square, as used by the bitboards
+     */
+    public int getSquare() {
+        return Bitboards.square(getX(), getY());
+    }
+
+    /**
+     * @return piece type, as used to index the bitboards in Position
+     */
+    public abstract int getType();
+
     public void setLoc(Point p) {
         location = p;
     }
@@ -94,6 +107,10 @@ public abstract class Chessman implements Cloneable {
         return firstMove;
     }
 
+    public void setFirstMove(boolean f) {
+        firstMove = f;
+    }
+
     public void setBoard(Board b) {
         theBoard = b;
     }
@@ -133,27 +150,51 @@ public abstract class Chessman implements Cloneable {
     public boolean move(int nx, int ny) {
         Point p = new Point(nx, ny);
         if (getPotentialMoves().contains(p)) {
-            theBoard.clearPlace(p);
-            theBoard.placeMan(this, p);
+            theBoard.makeMove(createChange(p));
         } else {
             System.err.println("Not a valid move!");
             return false;
         }
-        firstMove = false;
         return true;
     }
 
+    /**
+     * Describes moving this piece to a point.
+     * 
+     * @param p Point to move to
+     * @return board change to hand to Board.makeMove()
+     */
+    protected BoardChange createChange(Point p) {
+        BoardChange c = new BoardChange(this);
+        c.setEnd(p);
+        return c;
+    }
+
     /**
      * @return List of all moves the piece can make which are capable of 
      * capturing pieces, and moves that must capture a piece (pawns capture)
      */
-    public abstract ArrayList<Point> getAggressiveMoveSet();
+    public ArrayList<Point> getAggressiveMoveSet() {
+        return theBoard.toPoints(getAggressiveMoveBits());
+    }
+
+    /**
+     * @return bitboard of the squares in getAggressiveMoveSet()
+     */
+    public abstract long getAggressiveMoveBits();
 
     /**
      * @return List of all moves which are strictly pacifist. (Pawn movement)
      */
     public ArrayList<Point> getMoveSet() {
-        return new ArrayList<>();
+        return theBoard.toPoints(getMoveBits());
+    }
+
+    /**
+     * @return bitboard of the squares in getMoveSet()
+     */
+    public long getMoveBits() {
+        return 0;
     }
 
     @Override
@@ -164,34 +205,14 @@ public abstract class Chessman implements Cloneable {
      * and rejects them if they would end up with the player's own King
      * under attack. 
      * 
-     * @return 
+     * @return list of legal destinations
      */
     protected ArrayList<Point> getPotentialMoves() {
-        ArrayList<Point> list = new ArrayList<>();
-        ArrayList<Point> rejected = new ArrayList<>();
-        Board tempBoard;
-        Chessman toMove;
-        King tempKing;
-
-        list.addAll(getAggressiveMoveSet());
-        list.addAll(getMoveSet());
-
-        for (Point target : list) {
-            tempBoard = new Board(getBoard());
-            toMove = tempBoard.getMan(getLoc());
-            toMove.forceMove(target);
-
-            tempKing = getOwner().getKing();
-            if (tempKing == null) {
-                System.err.println("Where did my king go?? This is bad.");
-                System.exit(1);
-            }
-            if (tempBoard.isAttacked(tempKing.getLoc(), getOwner())) {
-                rejected.add(target);
-            }
+        if (theBoard.getPosition().getKingSquare(getOwner().getSide()) < 0) {
+            System.err.println("Where did my king go?? This is bad.");
+            System.exit(1);
         }
-        list.removeAll(rejected);
-        return list;
+        return theBoard.toPoints(theBoard.getLegalMoveBits(this));
     }
 
     /**
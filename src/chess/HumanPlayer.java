@@ -31,6 +31,7 @@ public class HumanPlayer extends Player {
         int x, y;
         String s;
         Chessman pieceToMove = null;
+        Point end = null;
         ArrayList<Point> list = null;
         boolean result = false;
 
@@ -123,10 +124,15 @@ public class HumanPlayer extends Player {
                 continue;
             }
 
+            end = new Point(x, y);
             result = pieceToMove.move(x, y);
         } while (!result);
 
-        c.setEnd(new Point(pieceToMove.getX(), pieceToMove.getY()));
+        c.setEnd(end);
+        //a pawn reaching the far side has left the board for what it became
+        if (!pieceToMove.isAlive()) {
+            c.setPromotion(theBoard.getMan(end.x, end.y));
+        }
 
         return c;
     }
@@ -1,8 +1,5 @@
 package chess;
 
-import java.awt.Point;
-import java.util.ArrayList;
-
 /**
  * @author Alexis Varsava <av11sl@brocku.ca>
  * @version 1
@@ -24,7 +21,7 @@ public class King extends Chessman {
         theBoard = null;
         firstMove = k.firstMove();
         location = k.getLoc();
-        uuid = k.uuid;
+        index = k.index;
     }
 
     @Override
@@ -33,120 +30,68 @@ public class King extends Chessman {
     }
 
     @Override
-    public ArrayList<Point> getAggressiveMoveSet() {
-        ArrayList<Point> list = new ArrayList();
-        if (getLoc() == theBoard.getShadowRealm()) {
-            return list;
-        }
-        int x = getLoc().x, y = getLoc().y;
-
-        Point[] offsets = {
-            new Point(-1, -1),
-            new Point(0, -1),
-            new Point(+1, -1),
-            new Point(+1, 0),
-            new Point(+1, +1),
-            new Point(0, +1),
-            new Point(-1, +1),
-            new Point(-1, 0)
-        };
+    public int getType() {
+        return Position.KING;
+    }
 
-        for (Point p : offsets) {
-            if (x + p.x >= 0 && x + p.x <= theBoard.getMax()
-                    && y + p.y >= 0 && y + p.y <= theBoard.getMax()) {
-                if (theBoard.getMan(x + p.x, y + p.y) == null
-                        || theBoard.getMan(x + p.x, y + p.y).getOwner() 
-                            != owner) {
-                    list.add(new Point(x + p.x, y + p.y));
-                }
-            }
+    @Override
+    public long getAggressiveMoveBits() {
+        if (getLoc() == theBoard.getShadowRealm()) {
+            return 0;
         }
-
-        return list;
+        return Bitboards.kingAttacksFrom(getSquare())
+                & ~theBoard.getPosition().getOccupied(owner.getSide());
     }
 
     @Override
-    public ArrayList<Point> getMoveSet() {
-        int x, y = getLoc().y;
-        Chessman c;
-        ArrayList<Point> list = new ArrayList();
+    public long getMoveBits() {
+        int x, y;
+        long result = 0;
         if (getLoc() == theBoard.getShadowRealm()) {
-            return list;
+            return result;
         }
+        x = getLoc().x;
+        y = getLoc().y;
         //check for castling
         if (firstMove && (y == 0 || y == theBoard.getMax())
                 && !theBoard.isAttacked(getLoc(), owner)) {
-            x = getLoc().x;
-            y = getLoc().y;
             //Castling to the right
-            if (x + 1 <= theBoard.getMax()
-                    && x + 2 <= theBoard.getMax()
-                    && theBoard.getMan(x + 1, y) == null
-                    && theBoard.getMan(x + 2, y) == null) {
-                c = null;
-                for (int i = x + 1; i <= theBoard.getMax(); i++) {
-                    if (theBoard.isAttacked(i, y, owner)) {
-                        break;
-                    }
-                    c = theBoard.getMan(i, y);
-                    if (c != null) {
-                        break;
-                    }
-                }
-                if (c instanceof Rook && c.getOwner() == owner
-                        && c.firstMove()) {
-                    list.add(new Point(x + 2, y));
-                }
+            if (canCastle(x, y, 1)) {
+                result |= Bitboards.bit(Bitboards.square(x + 2, y));
             }
 
             //Castling to the left
-            if (x - 1 >= 0
-                    && x - 2 >= 0
-                    && theBoard.getMan(x - 1, y) == null
-                    && theBoard.getMan(x - 2, y) == null) {
-                c = null;
-                for (int i = x - 1; i >= 0; i--) {
-                    if (theBoard.isAttacked(i, y, owner)) {
-                        break;
-                    }
-                    c = theBoard.getMan(i, y);
-                    if (c != null) {
-                        break;
-                    }
-                }
-                if (c instanceof Rook && c.getOwner() == owner
-                        && c.firstMove()) {
-                    list.add(new Point(x - 2, y));
-                }
+            if (canCastle(x, y, -1)) {
+                result |= Bitboards.bit(Bitboards.square(x - 2, y));
             }
         }
-        return list;
+        return result;
     }
 
-    @Override
-    public boolean move(int nx, int ny) {
-        Point oldLoc = getLoc();
-        Rook toMove;
-        //provided the King was able to move
-        if (super.move(nx, ny)) {
-            //if castling to the right 
-            if (nx - oldLoc.getX() == 2) {
-                //safe to assume that the Rook will be there,
-                //rules require that the piece has not yet moved
-                toMove = (Rook) theBoard.getMan(0, ny);
-                toMove.forceMove(nx + 1, ny);
-
-                //if castling to the left
-            } else if (nx - oldLoc.getX() == -2) {
-                //same deal
-                toMove = (Rook) theBoard.getMan(theBoard.getMax(), ny);
-                toMove.forceMove(nx - 1, ny);
+    /**
+     * The King may castle towards a side if the first piece that way is one
+     * of our Rooks which has not moved, with room for the King to move two
+     * squares, and neither square the King crosses is under attack.
+     *
+     * @param x horizontal co-ordinate of the King
+     * @param y vertical co-ordinate of the King
+     * @param dir 1 to castle to the right, -1 to the left
+     * @return whether castling that way is allowed
+     */
+    private boolean canCastle(int x, int y, int dir) {
+        Chessman c = null;
+        int i = x + dir;
+        while (i >= 0 && i <= theBoard.getMax()) {
+            c = theBoard.getMan(i, y);
+            if (c != null) {
+                break;
             }
-            //whether we castled or not, if super.move() worked, we did move
-            return true;
+            i += dir;
         }
-        //if super.move() failed, then we didn't move
-        return false;
+        return c instanceof Rook && c.getOwner() == owner && c.firstMove()
+                && Math.abs(i - x) > 2
+                && !theBoard.isAttacked(x + dir, y, owner)
+                && !theBoard.isAttacked(x + 2 * dir, y, owner);
     }
 
     @Override
@@ -1,8 +1,5 @@
 package chess;
 
-import java.awt.Point;
-import java.util.ArrayList;
-
 /**
  * @author Alexis Varsava <av11sl@brocku.ca>
  * @version 1
@@ -24,7 +21,7 @@ public class Knight extends Chessman {
         theBoard = null;
         firstMove = k.firstMove();
         location = k.getLoc();
-        uuid = k.uuid;
+        index = k.index;
     }
 
     public Knight(Chessman c) {
@@ -32,7 +29,6 @@ public class Knight extends Chessman {
         theBoard = c.getBoard();
         firstMove = false;
         location = c.getLoc();
-        uuid = c.uuid;
     }
 
     @Override
@@ -41,70 +37,17 @@ public class Knight extends Chessman {
     }
 
     @Override
-    public ArrayList<Point> getAggressiveMoveSet() {
-        ArrayList<Point> list = new ArrayList();
-        if (getLoc() == theBoard.getShadowRealm()) {
-            return list;
-        }
-        int x = getLoc().x, y = getLoc().y;
-
-        if (x + 1 <= theBoard.getMax() && y - 2 >= 0) {
-            if (theBoard.getMan(x + 1, y - 2) == null 
-                    || theBoard.getMan(x + 1, y - 2).getOwner() != owner) {
-                list.add(new Point(x + 1, y - 2));
-            }
-        }
-
-        if (x + 2 <= theBoard.getMax() && y - 1 >= 0) {
-            if (theBoard.getMan(x + 2, y - 1) == null 
-                    || theBoard.getMan(x + 2, y - 1).getOwner() != owner) {
-                list.add(new Point(x + 2, y - 1));
-            }
-        }
-
-        if (x + 2 <= theBoard.getMax() && y + 1 <= theBoard.getMax()) {
-            if (theBoard.getMan(x + 2, y + 1) == null 
-                    || theBoard.getMan(x + 2, y + 1).getOwner() != owner) {
-                list.add(new Point(x + 2, y + 1));
-            }
-        }
-
-        if (x + 1 <= theBoard.getMax() && y + 2 <= theBoard.getMax()) {
-            if (theBoard.getMan(x + 1, y + 2) == null 
-                    || theBoard.getMan(x + 1, y + 2).getOwner() != owner) {
-                list.add(new Point(x + 1, y + 2));
-            }
-        }
-
-        if (x - 1 >= 0 && y + 2 <= theBoard.getMax()) {
-            if (theBoard.getMan(x - 1, y + 2) == null 
-                    || theBoard.getMan(x - 1, y + 2).getOwner() != owner) {
-                list.add(new Point(x - 1, y + 2));
-            }
-        }
-
-        if (x - 2 >= 0 && y + 1 <= theBoard.getMax()) {
-            if (theBoard.getMan(x - 2, y + 1) == null 
-                    || theBoard.getMan(x - 2, y + 1).getOwner() != owner) {
-                list.add(new Point(x - 2, y + 1));
-            }
-        }
-
-        if (x - 2 >= 0 && y - 1 >= 0) {
-            if (theBoard.getMan(x - 2, y - 1) == null 
-                    || theBoard.getMan(x - 2, y - 1).getOwner() != owner) {
-                list.add(new Point(x - 2, y - 1));
-            }
-        }
+    public int getType() {
+        return Position.KNIGHT;
+    }
 
-        if (x - 1 >= 0 && y - 2 >= 0) {
-            if (theBoard.getMan(x - 1, y - 2) == null 
-                    || theBoard.getMan(x - 1, y - 2).getOwner() != owner) {
-                list.add(new Point(x - 1, y - 2));
-            }
+    @Override
+    public long getAggressiveMoveBits() {
+        if (getLoc() == theBoard.getShadowRealm()) {
+            return 0;
         }
-
-        return list;
+        return Bitboards.knightAttacksFrom(getSquare())
+                & ~theBoard.getPosition().getOccupied(owner.getSide());
     }
 
     @Override
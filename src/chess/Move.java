@@ -0,0 +1,123 @@
+package chess;
+
+/**
+ * Moves packed into an int, so the search can list and make them without
+ * creating any objects. BoardChange is still what players hand back to the
+ * game; Board converts between the two.
+ *
+ * The low 12 bits are the start square * 64 + the end square, the same as
+ * BoardChange.getSquares(), which is what the transposition table, killers
+ * and history keep. Above them are the piece moved, the piece taken and the
+ * piece promoted to, as Position types, and flags for the special moves.
+ *
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public final class Move {
+
+    /**
+     * No move. Every real move has different start and end squares, so none
+     * is 0.
+     */
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 21;
+    public static final int PROMOTION = 1 << 22;
+    public static final int EN_PASSANT = 1 << 23;
+    public static final int CASTLE = 1 << 24;
+    public static final int DOUBLE_PUSH = 1 << 25;
+
+    private static final int PIECE_SHIFT = 12;
+    private static final int CAPTURED_SHIFT = 15;
+    private static final int PROMOTION_SHIFT = 18;
+
+    private Move() {
+    }
+
+    /**
+     * @param from start square
+     * @param to end square
+     * @param piece type of the piece moved
+     * @param flags any of EN_PASSANT, CASTLE and DOUBLE_PUSH
+     * @return the move, capturing nothing
+     */
+    public static int create(int from, int to, int piece, int flags) {
+        return from << 6 | to | piece << PIECE_SHIFT | flags;
+    }
+
+    /**
+     * @param move move capturing nothing
+     * @param victim type of the piece it takes
+     * @return the move, capturing victim
+     */
+    public static int capturing(int move, int victim) {
+        return move | CAPTURE | victim << CAPTURED_SHIFT;
+    }
+
+    /**
+     * @param move pawn move to the far side
+     * @param type type of the piece the pawn becomes
+     * @return the move, promoting to type
+     */
+    public static int promoting(int move, int type) {
+        return move | PROMOTION | type << PROMOTION_SHIFT;
+    }
+
+    public static int getFrom(int move) {
+        return move >>> 6 & 63;
+    }
+
+    public static int getTo(int move) {
+        return move & 63;
+    }
+
+    /**
+     * @param move move to unpack
+     * @return start and end squares packed as start * 64 + end
+     */
+    public static int getSquares(int move) {
+        return move & 0xFFF;
+    }
+
+    public static int getPiece(int move) {
+        return move >>> PIECE_SHIFT & 7;
+    }
+
+    /**
+     * @param move move to unpack
+     * @return type of the piece taken, or -1 if none is
+     */
+    public static int getCaptured(int move) {
+        return (move & CAPTURE) == 0 ? -1 : move >>> CAPTURED_SHIFT & 7;
+    }
+
+    /**
+     * @param move move to unpack
+     * @return type of the piece promoted to, or -1 if not a promotion
+     */
+    public static int getPromotion(int move) {
+        return (move & PROMOTION) == 0 ? -1 : move >>> PROMOTION_SHIFT & 7;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * @param move move to write
+     * @return move in coordinate notation, such as e2e4 or a7a8q
+     */
+    public static String toString(int move) {
+        String result = square(getFrom(move)) + square(getTo(move));
+        if ((move & PROMOTION) != 0) {
+            result += "pnbrqk".charAt(getPromotion(move));
+        }
+        return result;
+    }
+
+    private static String square(int sq) {
+        return "" + (char) ('a' + Bitboards.getX(sq))
+                + (Bitboards.SIZE - Bitboards.getY(sq));
+    }
+}
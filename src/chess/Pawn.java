@@ -1,7 +1,6 @@
 package chess;
 
 import java.awt.Point;
-import java.util.ArrayList;
 
 /**
  * @author Alexis Varsava <av11sl@brocku.ca>
@@ -10,17 +9,12 @@ import java.util.ArrayList;
  */
 public class Pawn extends Chessman {
 
-    //whether this piece may be captured via en passant in the coming turn
-    private boolean enPassant;
-
     public Pawn() {
         super();
-        enPassant = false;
     }
 
     public Pawn(Player p) {
         super(p);
-        enPassant = false;
     }
 
     public Pawn(Pawn p) {
@@ -28,8 +22,7 @@ public class Pawn extends Chessman {
         theBoard = null;
         firstMove = p.firstMove();
         location = p.getLoc();
-        enPassant = p.enPassantPossible();
-        uuid = p.uuid;
+        index = p.index;
     }
 
     @Override
@@ -38,164 +31,98 @@ public class Pawn extends Chessman {
     }
 
 
+    /**
+     * @return whether this piece may be captured via en passant in the
+     * coming turn
+     */
     public boolean enPassantPossible() {
-        return enPassant;
+        return isAlive()
+                && theBoard.getPosition().getEnPassant() == getPassedSquare();
     }
 
     public void enableEnPassant() {
-        enPassant = true;
+        theBoard.getPosition().setEnPassant(getPassedSquare());
     }
 
     public void disableEnPassant() {
-        enPassant = false;
+        if (enPassantPossible()) {
+            theBoard.getPosition().setEnPassant(-1);
+        }
+    }
+
+    //the square this pawn passed over if it just moved forward 2
+    private int getPassedSquare() {
+        Point up = getOwner().getUp();
+        return Bitboards.square(getX() - up.x, getY() - up.y);
     }
 
     @Override
-    public ArrayList<Point> getAggressiveMoveSet() {
-        ArrayList<Point> list = new ArrayList<>();
+    public int getType() {
+        return Position.PAWN;
+    }
+
+    @Override
+    public long getAggressiveMoveBits() {
         if (getLoc() == theBoard.getShadowRealm()) {
-            return list;
+            return 0;
         }
-        Pawn p;
-        Point up;
+        Chessman c;
+        int side = owner.getSide(), ep = theBoard.getPosition().getEnPassant();
+        long attacks = Bitboards.pawnAttacksFrom(side, getSquare());
 
         //if there are enemy pieces on the diagonal
-        //white pieces look up
-        if (owner.getColour() == COLOURS.white) {
-            //look to the upper left
-            if (theBoard.getMan(getX() - 1, getY() - 1) != null
-                    && theBoard.getMan(getX() - 1, getY() - 1).getOwner() 
-                    != getOwner()) {
-                list.add(new Point(getX() - 1, getY() - 1));
-            }
-
-            //look to the upper right
-            if (theBoard.getMan(getX() + 1, getY() - 1) != null
-                    && theBoard.getMan(getX() + 1, getY() - 1).getOwner() 
-                    != getOwner()) {
-                list.add(new Point(getX() + 1, getY() - 1));
-            }
-
-            //black pieces look down
-        } else {
-            //look to the lower left
-            if (theBoard.getMan(getX() - 1, getY() + 1) != null
-                    && theBoard.getMan(getX() - 1, getY() + 1).getOwner() 
-                    != getOwner()) {
-                list.add(new Point(getX() - 1, getY() + 1));
-            }
-
-            //look to the lower right
-            if (theBoard.getMan(getX() + 1, getY() + 1) != null
-                    && theBoard.getMan(getX() + 1, getY() + 1).getOwner() 
-                    != getOwner()) {
-                list.add(new Point(getX() + 1, getY() + 1));
-            }
-        }
-
-        //all pieces look to the sides for pawns to capture via en passant
-        //look left
-        if (theBoard.getMan(getX() - 1, getY()) instanceof Pawn
-                && theBoard.getMan(getX() - 1, 
-                        getY()).getOwner() != getOwner()) {
-            p = (Pawn) theBoard.getMan(getX() - 1, getY());
-            if (p.enPassantPossible()) {
-                up = getOwner().getUp();
-                list.add(new Point((int) (p.getLoc().getX() + up.getX()),
-                        (int) (p.getLoc().getY() + up.getY())));
-            }
-        }
-
-        //look right
-        if (theBoard.getMan(getX() + 1, getY()) instanceof Pawn
-                && theBoard.getMan(getX() + 1, 
-                        getY()).getOwner() != getOwner()) {
-            p = (Pawn) theBoard.getMan(getX() + 1, getY());
-            if (p.enPassantPossible()) {
-                up = getOwner().getUp();
-                list.add(new Point((int) (p.getLoc().getX() + up.getX()),
-                        (int) (p.getLoc().getY() + up.getY())));
+        //white pieces look up, black pieces look down
+        long result = attacks & theBoard.getPosition().getOccupied(1 - side);
+
+        //a pawn beside us which just moved forward 2 can be captured via
+        //en passant by moving onto the square it passed over
+        if (ep >= 0 && (attacks & Bitboards.bit(ep)) != 0) {
+            c = theBoard.getMan(Bitboards.getX(ep), getY());
+            if (c instanceof Pawn && c.getOwner() != getOwner()) {
+                result |= Bitboards.bit(ep);
             }
         }
 
-        return list;
+        return result;
     }
 
     @Override
-    public ArrayList<Point> getMoveSet() {
-        ArrayList<Point> list = new ArrayList();
+    public long getMoveBits() {
         if (getLoc() == theBoard.getShadowRealm()) {
-            return list;
+            return 0;
         }
+        long empty = ~theBoard.getPosition().getOccupied();
+        long one, two = 0;
         if (owner.getColour() == COLOURS.white) {
-            Point p = new Point(getLoc().x, getLoc().y - 1);
-            if (p.y >= 0 && theBoard.getMan(p) == null) {
-                list.add(p);
-                if (firstMove) {
-                    Point p2 = new Point(getLoc().x, getLoc().y - 2);
-                    if (p2.y >= 0 && theBoard.getMan(p2) == null) {
-                        list.add(p2);
-                    }
-                }
+            one = Bitboards.up(Bitboards.bit(getSquare())) & empty;
+            if (firstMove) {
+                two = Bitboards.up(one) & empty;
             }
         } else {
-            Point p = new Point(getLoc().x, getLoc().y + 1);
-            if (p.y <= theBoard.getMax() && theBoard.getMan(p) == null) {
-                list.add(p);
-                if (firstMove) {
-                    Point p2 = new Point(getLoc().x, getLoc().y + 2);
-                    if (p2.y <= theBoard.getMax() 
-                            && theBoard.getMan(p2) == null) {
-                        list.add(p2);
-                    }
-                }
+            one = Bitboards.down(Bitboards.bit(getSquare())) & empty;
+            if (firstMove) {
+                two = Bitboards.down(one) & empty;
             }
         }
 
-        return list;
+        return one | two;
     }
 
 
     /**
-     * Standard move, plus logic for en passant 
+     * Standard move, plus asking the owner what to promote to if the move
+     * reaches the other side.
      * 
-     * @param nx new horizontal coordinate
-     * @param ny new vertical coordinate
-     * @return whether or not move was successful
+     * @param p Point to move to
+     * @return board change to hand to Board.makeMove()
      */
     @Override
-    public boolean move(int nx, int ny) {
-        Point oldLoc = getLoc(), up;
-        Chessman replacement;
-
-        if (super.move(nx, ny)) {
-            //if we moved forward 2, this pawn can be captured via en passant
-            if (Math.abs(ny - oldLoc.getY()) == 2) {
-                enableEnPassant();
-            }
-
-            //if we moved diagonally & enPassant was possible 
-            //(ie we made an en passant capture)
-            //capture the pawn we moved around
-            //it's safe to assume it was a pawn, due to the check in
-            //getAggressiveMoveSet()
-            if (Math.abs(nx - oldLoc.getX()) == 1
-                    && Math.abs(ny - oldLoc.getY()) == 1) {
-                up = getOwner().getUp();
-                theBoard.clearPlace((int) (nx + up.getX()),
-                        (int) (ny - up.getY()));
-            }
-
-            //if we have reached the other side, promote ourself
-            if (getLoc().getY() == getOwner().getOppositeSide()) {
-                replacement = getOwner().promotePawn(this);
-                theBoard.clearPlace(nx, ny);
-                theBoard.placeMan(replacement, new Point(nx, ny));
-            }
-
-            return true;
+    protected BoardChange createChange(Point p) {
+        BoardChange c = super.createChange(p);
+        if (p.y == getOwner().getOppositeSide()) {
+            c.setPromotion(getOwner().promotePawn(this));
         }
-        return false;
+        return c;
     }
 
     /**
@@ -0,0 +1,100 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pawn structure scores, keyed by a Zobrist key of the pawns alone. Pawns
+ * seldom move compared to the other pieces, so most leaves find their pawn
+ * structure already scored. Slots are validated the same way as in the
+ * TranspositionTable, so searchers on several threads can share one table.
+ *
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public class PawnHashTable {
+
+    //set in every entry so a stored entry is never 0
+    private static final long STORED = 1L << 32;
+
+    //each entry is key ^ data and a data word holding STORED | score
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private final LongAdder probes;
+    private final LongAdder hits;
+
+    /**
+     * Creates a table using about the given amount of memory.
+     *
+     * @param megabytes memory to use, rounded down to a power of two entries
+     */
+    public PawnHashTable(int megabytes) {
+        long entries = Math.max(1L, megabytes) * 1024 * 1024 / 16;
+        int size = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+        probes = new LongAdder();
+        hits = new LongAdder();
+    }
+
+    /**
+     * Looks up a pawn structure.
+     *
+     * @param key pawn key of the position
+     * @return packed entry, or 0 if the structure is not in the table
+     */
+    public long probe(long key) {
+        int i = (int) key & mask;
+        long d = data[i];
+        probes.increment();
+        if ((keys[i] ^ d) == key && d != 0) {
+            hits.increment();
+            return d;
+        }
+        return 0;
+    }
+
+    /**
+     * @param key pawn key of the position
+     * @param score score of the pawn structure
+     */
+    public void store(long key, int score) {
+        int i = (int) key & mask;
+        long d = STORED | (score & 0xFFFFFFFFL);
+        keys[i] = key ^ d;
+        data[i] = d;
+    }
+
+    /**
+     * Empties the table and resets its statistics.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+        probes.reset();
+        hits.reset();
+    }
+
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return fraction of probes which found their entry, 0 if none made
+     */
+    public double getHitRate() {
+        long p = probes.sum();
+        return p == 0 ? 0 : (double) hits.sum() / p;
+    }
+
+    public static int getScore(long entry) {
+        return (int) entry;
+    }
+}
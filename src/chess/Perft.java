@@ -0,0 +1,119 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth, using the
+ * same move generation as the players. The counts for well known positions
+ * are published, so a wrong count means a bug in move generation, and the
+ * time taken measures how fast moves are generated.
+ *
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public class Perft {
+
+    private final Board board;
+
+    /**
+     * @param c game whose board to count moves on
+     */
+    public Perft(Chess c) {
+        board = c.getBoard();
+    }
+
+    /**
+     * @param depth plies to count to
+     * @return number of positions reached after exactly depth plies
+     */
+    public long perft(int depth) {
+        return count(board.getPosition().getSideToMove(), depth);
+    }
+
+    /**
+     * Counts as perft() does, and prints the count below each move from the
+     * current position, so a wrong count can be traced to the move causing
+     * it.
+     *
+     * @param depth plies to count to, at least 1
+     * @return number of positions reached after exactly depth plies
+     */
+    public long divide(int depth) {
+        int side = board.getPosition().getSideToMove();
+        int[] moves = new int[Board.MAX_MOVES];
+        int count = board.generateMoves(side, moves, true);
+        long total = 0, n;
+
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            n = count(1 - side, depth - 1);
+            board.unmakeMove();
+            System.out.println(Move.toString(moves[i]) + ": " + n);
+            total += n;
+        }
+
+        return total;
+    }
+
+    private long count(int side, int depth) {
+        int[] moves;
+        int count;
+        long n = 0;
+        if (depth == 0) {
+            return 1;
+        }
+        moves = new int[Board.MAX_MOVES];
+        count = board.generateMoves(side, moves, true);
+        if (depth == 1) {
+            return count;
+        }
+
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            n += count(1 - side, depth - 1);
+            board.unmakeMove();
+        }
+
+        return n;
+    }
+
+    /**
+     * Runs perft or divide from the command line, then reports the nodes
+     * counted, the time taken and the nodes per second.
+     *
+     * @param args "perft" or "divide", a depth, and optionally a FEN
+     * (the starting position otherwise)
+     */
+    public static void main(String[] args) {
+        int depth;
+        long nodes, start, millis;
+        String fen = Chess.START_FEN;
+        Perft perft;
+
+        try {
+            depth = Integer.parseInt(args[1]);
+            if (args.length > 2) {
+                fen = String.join(" ", Arrays.copyOfRange(args, 2,
+                        args.length));
+            }
+            perft = new Perft(new Chess(fen));
+        } catch (Exception ex) {
+            System.err.println("Usage: perft|divide <depth> [FEN]");
+            return;
+        }
+
+        start = System.nanoTime();
+        if (args[0].equals("divide") && depth > 0) {
+            nodes = perft.divide(depth);
+            System.out.println();
+        } else {
+            nodes = perft.perft(depth);
+        }
+        millis = (System.nanoTime() - start) / 1000000;
+
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + millis + " ms");
+        System.out.println("NPS: " + nodes * 1000 / Math.max(1, millis));
+    }
+}
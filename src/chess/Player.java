@@ -31,6 +31,13 @@ public abstract class Player {
         return colour;
     }
 
+    /**
+     * @return colour index used by the bitboards, 0 for white and 1 for black
+     */
+    public int getSide() {
+        return colour.ordinal();
+    }
+
     /**
      * Resets all flags for all this player's pieces
      * 
@@ -0,0 +1,343 @@
+package chess;
+
+/**
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public class Position {
+
+    /**
+     * Piece types, used to index the bitboards.
+     */
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+    public static final int NUM_TYPES = 6;
+
+    /**
+     * Worth of each piece type, in tenths of a pawn.
+     */
+    public static final int[] VALUES = {10, 30, 30, 50, 90, 2000};
+
+    /**
+     * Castling rights, one bit per King and side it may castle towards.
+     */
+    public static final int CASTLE_WHITE_RIGHT = 1;
+    public static final int CASTLE_WHITE_LEFT = 2;
+    public static final int CASTLE_BLACK_RIGHT = 4;
+    public static final int CASTLE_BLACK_LEFT = 8;
+
+    //one word per colour and piece type, plus occupancy per colour
+    private final long[][] pieces;
+    private final long[] occupied;
+    private long all;
+    //summed VALUES of each colour's pieces
+    private final int[] material;
+
+    //square a pawn may move to when capturing en passant, -1 if none
+    private int enPassant;
+    private int castling;
+    //colour index of the side to move
+    private int toMove;
+    //Zobrist key of everything above, and of the pawns alone
+    private long key;
+    private long pawnKey;
+
+    /**
+     * Creates an empty position.
+     */
+    public Position() {
+        pieces = new long[2][NUM_TYPES];
+        occupied = new long[2];
+        all = 0;
+        material = new int[2];
+        enPassant = -1;
+        castling = 0;
+        toMove = COLOURS.white.ordinal();
+        key = 0;
+        pawnKey = 0;
+    }
+
+    /**
+     * Clones a position.
+     *
+     * @param p position to clone
+     */
+    public Position(Position p) {
+        pieces = new long[2][];
+        pieces[0] = p.pieces[0].clone();
+        pieces[1] = p.pieces[1].clone();
+        occupied = p.occupied.clone();
+        all = p.all;
+        material = p.material.clone();
+        enPassant = p.enPassant;
+        castling = p.castling;
+        toMove = p.toMove;
+        key = p.key;
+        pawnKey = p.pawnKey;
+    }
+
+    /**
+     * Puts a piece on a square.
+     *
+     * @param side colour index of the piece
+     * @param type piece type
+     * @param sq square to put it on
+     */
+    public void add(int side, int type, int sq) {
+        long b = Bitboards.bit(sq);
+        pieces[side][type] |= b;
+        occupied[side] |= b;
+        all |= b;
+        material[side] += VALUES[type];
+        key ^= Zobrist.piece(side, type, sq);
+        if (type == PAWN) {
+            pawnKey ^= Zobrist.piece(side, type, sq);
+        }
+    }
+
+    /**
+     * Takes a piece off a square.
+     *
+     * @param side colour index of the piece
+     * @param type piece type
+     * @param sq square to take it from
+     */
+    public void remove(int side, int type, int sq) {
+        long b = ~Bitboards.bit(sq);
+        pieces[side][type] &= b;
+        occupied[side] &= b;
+        all &= b;
+        material[side] -= VALUES[type];
+        key ^= Zobrist.piece(side, type, sq);
+        if (type == PAWN) {
+            pawnKey ^= Zobrist.piece(side, type, sq);
+        }
+    }
+
+    public int getEnPassant() {
+        return enPassant;
+    }
+
+    public void setEnPassant(int sq) {
+        key ^= Zobrist.enPassant(enPassant) ^ Zobrist.enPassant(sq);
+        enPassant = sq;
+    }
+
+    public int getCastling() {
+        return castling;
+    }
+
+    /**
+     * @param rights CASTLE_ flags for every castling move still possible
+     */
+    public void setCastling(int rights) {
+        key ^= Zobrist.castling(castling) ^ Zobrist.castling(rights);
+        castling = rights;
+    }
+
+    public int getSideToMove() {
+        return toMove;
+    }
+
+    public void setSideToMove(int side) {
+        if (side != toMove) {
+            key ^= Zobrist.side();
+        }
+        toMove = side;
+    }
+
+    /**
+     * @return Zobrist key of the position, kept up to date as pieces move
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * @return Zobrist key of where the pawns stand, ignoring other pieces
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    /**
+     * @param side colour index
+     * @return worth of every piece side has on the board
+     */
+    public int getMaterial(int side) {
+        return material[side];
+    }
+
+    public long getPieces(int side, int type) {
+        return pieces[side][type];
+    }
+
+    public long getOccupied(int side) {
+        return occupied[side];
+    }
+
+    public long getOccupied() {
+        return all;
+    }
+
+    public boolean isOccupied(int sq) {
+        return (all & Bitboards.bit(sq)) != 0;
+    }
+
+    /**
+     * @param side colour index of the king
+     * @return square of that side's king, or -1 if it has none
+     */
+    public int getKingSquare(int side) {
+        long k = pieces[side][KING];
+        return k == 0 ? -1 : Long.numberOfTrailingZeros(k);
+    }
+
+    /**
+     * Gets every square a piece attacks, including squares held by its own
+     * side.
+     *
+     * @param side colour index of the piece
+     * @param type piece type
+     * @param sq square the piece stands on
+     * @return attacked squares
+     */
+    public long getAttacks(int side, int type, int sq) {
+        switch (type) {
+            case PAWN:
+                return Bitboards.pawnAttacksFrom(side, sq);
+            case KNIGHT:
+                return Bitboards.knightAttacksFrom(sq);
+            case BISHOP:
+                return Bitboards.bishopAttacks(sq, all);
+            case ROOK:
+                return Bitboards.rookAttacks(sq, all);
+            case QUEEN:
+                return Bitboards.bishopAttacks(sq, all)
+                        | Bitboards.rookAttacks(sq, all);
+            default:
+                return Bitboards.kingAttacksFrom(sq);
+        }
+    }
+
+    /**
+     * Gets every square attacked by one side.
+     *
+     * @param side colour index of the attackers
+     * @return union of the attacks of all that side's pieces
+     */
+    public long getAttackMap(int side) {
+        long result = Bitboards.pawnAttacks(side, pieces[side][PAWN])
+                | Bitboards.knightAttacks(pieces[side][KNIGHT])
+                | Bitboards.kingAttacks(pieces[side][KING]);
+        long b = pieces[side][BISHOP] | pieces[side][QUEEN];
+        while (b != 0) {
+            result |= Bitboards.bishopAttacks(Long.numberOfTrailingZeros(b),
+                    all);
+            b &= b - 1;
+        }
+        b = pieces[side][ROOK] | pieces[side][QUEEN];
+        while (b != 0) {
+            result |= Bitboards.rookAttacks(Long.numberOfTrailingZeros(b),
+                    all);
+            b &= b - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Works outward from a square to find every piece of either colour
+     * attacking it.
+     *
+     * @param sq square to test
+     * @param occ occupancy to use for sliding pieces
+     * @return squares of the attackers
+     */
+    public long getAttackers(int sq, long occ) {
+        int w = COLOURS.white.ordinal(), k = COLOURS.black.ordinal();
+        return (Bitboards.pawnAttacksFrom(k, sq) & pieces[w][PAWN])
+                | (Bitboards.pawnAttacksFrom(w, sq) & pieces[k][PAWN])
+                | (Bitboards.knightAttacksFrom(sq)
+                        & (pieces[w][KNIGHT] | pieces[k][KNIGHT]))
+                | (Bitboards.kingAttacksFrom(sq)
+                        & (pieces[w][KING] | pieces[k][KING]))
+                | (Bitboards.bishopAttacks(sq, occ)
+                        & (pieces[w][BISHOP] | pieces[k][BISHOP]
+                        | pieces[w][QUEEN] | pieces[k][QUEEN]))
+                | (Bitboards.rookAttacks(sq, occ)
+                        & (pieces[w][ROOK] | pieces[k][ROOK]
+                        | pieces[w][QUEEN] | pieces[k][QUEEN]));
+    }
+
+    /**
+     * @param side colour index of the king
+     * @return squares of the enemy pieces giving check
+     */
+    public long getCheckers(int side) {
+        int king = getKingSquare(side);
+        if (king < 0) {
+            return 0;
+        }
+        return getAttackers(king, all) & occupied[1 - side];
+    }
+
+    /**
+     * Finds pieces which cannot leave the line between their king and an
+     * enemy slider without exposing the king.
+     *
+     * @param side colour index of the king
+     * @return squares of the pinned pieces
+     */
+    public long getPinned(int side) {
+        int king = getKingSquare(side), enemy = 1 - side;
+        long pinned = 0, b;
+        if (king < 0) {
+            return 0;
+        }
+        long snipers = (Bitboards.rookAttacks(king, 0)
+                & (pieces[enemy][ROOK] | pieces[enemy][QUEEN]))
+                | (Bitboards.bishopAttacks(king, 0)
+                & (pieces[enemy][BISHOP] | pieces[enemy][QUEEN]));
+
+        while (snipers != 0) {
+            b = Bitboards.between(king, Long.numberOfTrailingZeros(snipers))
+                    & all;
+            if (b != 0 && (b & (b - 1)) == 0) {
+                pinned |= b & occupied[side];
+            }
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+
+    /**
+     * Works outward from a square, as getAttackers() does, but for one side
+     * only and stopping at the first kind of piece found attacking it. The
+     * cheap table lookups come before the sliders.
+     *
+     * @param sq square to test
+     * @param side colour index of the attackers
+     * @return true if any piece of side attacks sq
+     */
+    public boolean isAttacked(int sq, int side) {
+        long[] p = pieces[side];
+        long sliders;
+        if ((Bitboards.pawnAttacksFrom(1 - side, sq) & p[PAWN]) != 0
+                || (Bitboards.knightAttacksFrom(sq) & p[KNIGHT]) != 0
+                || (Bitboards.kingAttacksFrom(sq) & p[KING]) != 0) {
+            return true;
+        }
+        sliders = p[ROOK] | p[QUEEN];
+        if (sliders != 0 && (Bitboards.rookAttacks(sq, all) & sliders) != 0) {
+            return true;
+        }
+        sliders = p[BISHOP] | p[QUEEN];
+        return sliders != 0
+                && (Bitboards.bishopAttacks(sq, all) & sliders) != 0;
+    }
+}
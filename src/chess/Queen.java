@@ -1,8 +1,5 @@
 package chess;
 
-import java.awt.Point;
-import java.util.ArrayList;
-
 /**
  * @author Alexis Varsava <av11sl@brocku.ca>
  * @version 1
@@ -24,7 +21,7 @@ public class Queen extends Chessman {
         theBoard = null;
         firstMove = q.firstMove();
         location = q.getLoc();
-        uuid = q.uuid;
+        index = q.index;
     }
 
     public Queen(Chessman c) {
@@ -40,137 +37,19 @@ public class Queen extends Chessman {
     }
 
     @Override
-    public ArrayList<Point> getAggressiveMoveSet() {
-        ArrayList<Point> list = new ArrayList();
-        if (getLoc() == theBoard.getShadowRealm()) {
-            return list;
-        }
-
-        int x = getLoc().x, y = getLoc().y;
-
-        //up
-        while (y > 0) {
-            y--;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
-        }
-
-        //down
-        x = getLoc().x;
-        y = getLoc().y;
-        while (y < theBoard.getMax()) {
-            y++;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
-        }
-
-        //left
-        x = getLoc().x;
-        y = getLoc().y;
-        while (x < theBoard.getMax()) {
-            x++;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
-        }
-
-        //right
-        x = getLoc().x;
-        y = getLoc().y;
-        while (x > 0) {
-            x--;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
-        }
-
-        //up, left
-        x = getLoc().x;
-        y = getLoc().y;
-        while (x > 0 && x <= theBoard.getMax() && y > 0 && y <= theBoard.getMax()) {
-            x--;
-            y--;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
-        }
-
-        //up, right
-        x = getLoc().x;
-        y = getLoc().y;
-        while (x >= 0 && x < theBoard.getMax() && y > 0 && y <= theBoard.getMax()) {
-            x++;
-            y--;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
-        }
-
-        //down, left
-        x = getLoc().x;
-        y = getLoc().y;
-        while (x > 0 && x <= theBoard.getMax() && y >= 0 && y < theBoard.getMax()) {
-            x--;
-            y++;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
-        }
+    public int getType() {
+        return Position.QUEEN;
+    }
 
-        //down, right
-        x = getLoc().x;
-        y = getLoc().y;
-        while (x >= 0 && x < theBoard.getMax() && y >= 0 && y < theBoard.getMax()) {
-            x++;
-            y++;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
+    @Override
+    public long getAggressiveMoveBits() {
+        if (getLoc() == theBoard.getShadowRealm()) {
+            return 0;
         }
-
-        return list;
+        Position pos = theBoard.getPosition();
+        return (Bitboards.rookAttacks(getSquare(), pos.getOccupied())
+                | Bitboards.bishopAttacks(getSquare(), pos.getOccupied()))
+                & ~pos.getOccupied(owner.getSide());
     }
 
     @Override
@@ -1,8 +1,5 @@
 package chess;
 
-import java.awt.Point;
-import java.util.ArrayList;
-
 /**
  * @author Alexis Varsava <av11sl@brocku.ca>
  * @version 1
@@ -24,7 +21,7 @@ public class Rook extends Chessman {
         theBoard = null;
         firstMove = r.firstMove();
         location = r.getLoc();
-        uuid = r.uuid;
+        index = r.index;
     }
 
     public Rook(Chessman c) {
@@ -40,72 +37,18 @@ public class Rook extends Chessman {
     }
 
     @Override
-    public ArrayList<Point> getAggressiveMoveSet() {
-        ArrayList<Point> list = new ArrayList();
-        if (getLoc() == theBoard.getShadowRealm()) {
-            return list;
-        }
-        int x = getLoc().x, y = getLoc().y;
-
-        //up
-        while (y > 0) {
-            y--;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
-        }
-
-        //down
-        x = getLoc().x;
-        y = getLoc().y;
-        while (y < theBoard.getMax()) {
-            y++;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
-        }
-
-        //left
-        x = getLoc().x;
-        y = getLoc().y;
-        while (x < theBoard.getMax()) {
-            x++;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
-        }
+    public int getType() {
+        return Position.ROOK;
+    }
 
-        //right
-        x = getLoc().x;
-        y = getLoc().y;
-        while (x > 0) {
-            x--;
-            if (theBoard.getMan(x, y) == null) {
-                list.add(new Point(x, y));
-            } else {
-                if (theBoard.getMan(x, y).getOwner() != owner) {
-                    list.add(new Point(x, y));
-                }
-                break;
-            }
+    @Override
+    public long getAggressiveMoveBits() {
+        if (getLoc() == theBoard.getShadowRealm()) {
+            return 0;
         }
-
-        return list;
+        Position pos = theBoard.getPosition();
+        return Bitboards.rookAttacks(getSquare(), pos.getOccupied())
+                & ~pos.getOccupied(owner.getSide());
     }
 
     @Override
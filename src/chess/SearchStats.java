@@ -0,0 +1,191 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * What an AIPlayer's search did to choose one move, summed over every thread
+ * that searched.
+ *
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public class SearchStats {
+
+    private String move;
+    private int score;
+    //deepest iteration finished, counted as AIPlayer counts its ply
+    private int depth;
+    private long nodes;
+    private long leaves;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private long tableProbes;
+    private long tableHits;
+    private long millis;
+    private final List<String> pv;
+
+    public SearchStats() {
+        depth = -1;
+        pv = new ArrayList<>();
+    }
+
+    /**
+     * Copies the result and counts of other statistics, but not their
+     * principal variation.
+     *
+     * @param s statistics to copy
+     */
+    SearchStats(SearchStats s) {
+        move = s.move;
+        score = s.score;
+        depth = s.depth;
+        nodes = s.nodes;
+        leaves = s.leaves;
+        cutoffs = s.cutoffs;
+        firstMoveCutoffs = s.firstMoveCutoffs;
+        tableProbes = s.tableProbes;
+        tableHits = s.tableHits;
+        millis = s.millis;
+        pv = new ArrayList<>();
+    }
+
+    /**
+     * Adds the counts of one searcher.
+     *
+     * @param s searcher which has stopped
+     */
+    void add(Searcher s) {
+        nodes += s.getNodes();
+        leaves += s.getLeaves();
+        cutoffs += s.getCutoffs();
+        firstMoveCutoffs += s.getFirstMoveCutoffs();
+        tableProbes += s.getTableProbes();
+        tableHits += s.getTableHits();
+    }
+
+    void setResult(int move, int score, int depth) {
+        this.move = move == Move.NONE ? null : Move.toString(move);
+        this.score = score;
+        this.depth = depth;
+    }
+
+    void setMillis(long millis) {
+        this.millis = millis;
+    }
+
+    /**
+     * @return move chosen in coordinate notation, or null if none was
+     */
+    public String getMove() {
+        return move;
+    }
+
+    /**
+     * @return score of the move chosen, in tenths of a pawn
+     */
+    public int getScore() {
+        return score;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return positions visited, including those of the quiescence search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return positions scored by utility()
+     */
+    public long getLeaves() {
+        return leaves;
+    }
+
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /**
+     * @return fraction of cutoffs made by the first move tried
+     */
+    public double getFirstMoveCutoffRate() {
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    /**
+     * @return transposition table probes which found their position
+     */
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    public double getTableHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * @return nodes visited per second
+     */
+    public long getNps() {
+        return nodes * 1000 / Math.max(1, millis);
+    }
+
+    /**
+     * Gets the branching factor a tree of uniform width would need to have
+     * as many nodes as the search visited. The deepest iteration finished
+     * searches depth + 1 plies, counting the root moves.
+     *
+     * @return effective branching factor, 0 if no iteration finished
+     */
+    public double getBranchingFactor() {
+        if (depth < 0 || nodes == 0) {
+            return 0;
+        }
+        return Math.pow(nodes, 1.0 / (depth + 1));
+    }
+
+    /**
+     * @return moves the search expects to be played from here, best first,
+     * in coordinate notation
+     */
+    public List<String> getPv() {
+        return pv;
+    }
+
+    void addPv(int move) {
+        pv.add(Move.toString(move));
+    }
+
+    /**
+     * @return the statistics as one line of key=value pairs, for logs
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "search move=%s score=%d depth=%d"
+                + " nodes=%d leaves=%d nps=%d millis=%d cutoffs=%d"
+                + " firstMoveCutoffRate=%.3f tableHits=%d tableHitRate=%.3f"
+                + " branchingFactor=%.2f pv=%s",
+                move, score, depth, nodes, leaves, getNps(), millis, cutoffs,
+                getFirstMoveCutoffRate(), tableHits, getTableHitRate(),
+                getBranchingFactor(), String.join(",", pv));
+    }
+}
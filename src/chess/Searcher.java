@@ -0,0 +1,539 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Does the alpha-beta search for an AIPlayer on a board of its own, so that
+ * several searchers can work through the root moves at once.
+ *
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public class Searcher {
+
+    //deepest ply killer moves are kept for
+    static final int MAX_DEPTH = 64;
+
+    //how moves are ranked, best first; quiet moves rank by their history
+    //score, which is kept below KILLER
+    private static final int TABLE_MOVE = 1 << 30;
+    private static final int CAPTURE = 1 << 29;
+    private static final int KILLER = 1 << 28;
+    private static final int[] NO_KILLERS = new int[2];
+
+    private final AIPlayer ai;
+    //the whole search makes and takes back moves on this one board
+    private final Board board;
+    //depth this searcher is searching to
+    private int ply;
+    //score of the best root move of the last iteration this searcher
+    //finished
+    private int rootScore;
+    private long nodes;
+    //positions scored by utility(), and transposition table lookups
+    private long leaves;
+    private long tableProbes;
+    private long tableHits;
+    //quiet moves which caused a cutoff, two per ply
+    private final int[][] killers;
+    //how often each quiet move has caused a cutoff, per side and squares
+    private final int[][] history;
+    //move list and ordering scores for each depth on the tree, kept one
+    //slot up so the root's is slot 0, and reused from node to node
+    private int[][] moveLists;
+    private int[][] scoreLists;
+    //cutoffs, and how many of them came from the first move tried
+    private long cutoffs;
+    private long firstMoveCutoffs;
+
+    /**
+     * @param ai player to search for
+     * @param board copy of the board, not shared with any other searcher
+     */
+    public Searcher(AIPlayer ai, Board board) {
+        this.ai = ai;
+        this.board = board;
+        nodes = 0;
+        killers = new int[MAX_DEPTH][2];
+        history = new int[2][Bitboards.SIZE * Bitboards.SIZE
+                * Bitboards.SIZE * Bitboards.SIZE];
+        moveLists = new int[MAX_DEPTH][];
+        scoreLists = new int[MAX_DEPTH][];
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    public int getPly() {
+        return ply;
+    }
+
+    public void setPly(int ply) {
+        this.ply = ply;
+    }
+
+    public int getRootScore() {
+        return rootScore;
+    }
+
+    public void setRootScore(int rootScore) {
+        this.rootScore = rootScore;
+    }
+
+    /**
+     * @return nodes visited by this searcher
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getLeaves() {
+        return leaves;
+    }
+
+    public long getTableProbes() {
+        return tableProbes;
+    }
+
+    public long getTableHits() {
+        return tableHits;
+    }
+
+    /**
+     * @return beta cutoffs found by this searcher
+     */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /**
+     * @return beta cutoffs caused by the first move tried, which is how
+     * often the move ordering put the refutation first
+     */
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /**
+     * Searches a root move to this searcher's depth. Scores of a or less
+     * only say the move is no better than a.
+     *
+     * @param move move to search
+     * @param a score the move has to beat
+     * @return score of the move, or 0 if the search was stopped
+     */
+    int searchRoot(int move, int a) {
+        int w;
+        board.makeMove(move);
+        w = minValue(a, AIPlayer.INFINITY, 0);
+        board.unmakeMove();
+        return w;
+    }
+
+    /**
+     * Stops the search once the deadline has passed. The main search's first
+     * iteration is always allowed to finish so there is a move to play.
+     *
+     * @return true if the search should unwind without a result
+     */
+    private boolean outOfTime() {
+        if (!ai.stopped && ++nodes % AIPlayer.NODES_PER_CLOCK_CHECK == 0
+                && ai.deadline > 0 && ai.searchPly > 0
+                && System.currentTimeMillis() > ai.deadline) {
+            ai.stopped = true;
+        }
+        return ai.stopped;
+    }
+
+    private int maxValue(int a, int b, int d) {
+        int v, w, alpha = a, depth = ply - d, best = 0;
+        long key = board.getPosition().getKey(), entry;
+        int[] moves;
+        int move, count;
+        if (outOfTime()) {
+            return 0;
+        }
+        if (cutoffTest(d)) {
+            return d >= ply ? quiesceMax(a, b, d) : evaluate();
+        }
+        entry = probe(key);
+        if (isSettled(entry, depth, a, b)) {
+            return TranspositionTable.getScore(entry);
+        }
+        v = -AIPlayer.INFINITY;
+
+        count = actions(ai, d);
+        moves = moveLists[d + 1];
+        for (int i = 0; i < count; i++) {
+            move = moves[i];
+            board.makeMove(move);
+            w = minValue(a, b, d + 1);
+            board.unmakeMove();
+            if (ai.stopped) {
+                return 0;
+            }
+            if (w > v) {
+                v = w;
+                best = Move.getSquares(move);
+            }
+            if (v >= b) {
+                cutoff(move, ai, i, d, depth);
+                break;
+            }
+            a = Math.max(a, v);
+        }
+        ai.table.store(key, depth, boundType(v, alpha, b), v, best);
+        return v;
+    }
+
+    private int minValue(int a, int b, int d) {
+        int v, w, beta = b, depth = ply - d, best = 0;
+        long key = board.getPosition().getKey(), entry;
+        int[] moves;
+        int move, count;
+        if (outOfTime()) {
+            return 0;
+        }
+        if (cutoffTest(d)) {
+            return d >= ply ? quiesceMin(a, b, d) : evaluate();
+        }
+        //the table scores for the side to move, here the opponent
+        entry = probe(key);
+        if (isSettled(entry, depth, -b, -a)) {
+            return -TranspositionTable.getScore(entry);
+        }
+        v = AIPlayer.INFINITY;
+
+        count = actions(ai.opponent, d);
+        moves = moveLists[d + 1];
+        for (int i = 0; i < count; i++) {
+            move = moves[i];
+            board.makeMove(move);
+            w = maxValue(a, b, d + 1);
+            board.unmakeMove();
+            if (ai.stopped) {
+                return 0;
+            }
+            if (w < v) {
+                v = w;
+                best = Move.getSquares(move);
+            }
+            if (v <= a) {
+                cutoff(move, ai.opponent, i, d, depth);
+                break;
+            }
+            b = Math.min(b, v);
+        }
+        ai.table.store(key, depth, boundType(-v, -beta, -a), -v, best);
+        return v;
+    }
+
+    /**
+     * Searches captures only, from a leaf of the main search, until the
+     * position is quiet, so a leaf is never scored halfway through an
+     * exchange. The side to move may also stand pat: decline every capture
+     * and take the position's score as it is.
+     *
+     * @param a best score the maximizing player is assured of
+     * @param b best score the minimizing player is assured of
+     * @param d depth on the tree
+     * @return score of the position once captures have played out
+     */
+    private int quiesceMax(int a, int b, int d) {
+        int v, w, count;
+        int[] moves;
+        if (outOfTime()) {
+            return 0;
+        }
+        v = evaluate();
+        if (v >= b) {
+            return v;
+        }
+        a = Math.max(a, v);
+
+        count = captures(ai, d);
+        moves = moveLists[d + 1];
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            w = quiesceMin(a, b, d + 1);
+            board.unmakeMove();
+            if (ai.stopped) {
+                return 0;
+            }
+            v = Math.max(v, w);
+            if (v >= b) {
+                break;
+            }
+            a = Math.max(a, v);
+        }
+        return v;
+    }
+
+    private int quiesceMin(int a, int b, int d) {
+        int v, w, count;
+        int[] moves;
+        if (outOfTime()) {
+            return 0;
+        }
+        v = evaluate();
+        if (v <= a) {
+            return v;
+        }
+        b = Math.min(b, v);
+
+        count = captures(ai.opponent, d);
+        moves = moveLists[d + 1];
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            w = quiesceMax(a, b, d + 1);
+            board.unmakeMove();
+            if (ai.stopped) {
+                return 0;
+            }
+            v = Math.min(v, w);
+            if (v <= a) {
+                break;
+            }
+            b = Math.min(b, v);
+        }
+        return v;
+    }
+
+    private int evaluate() {
+        leaves++;
+        return ai.utility(board);
+    }
+
+    private long probe(long key) {
+        long entry = ai.table.probe(key);
+        tableProbes++;
+        if (entry != 0) {
+            tableHits++;
+        }
+        return entry;
+    }
+
+    /**
+     * Records a cutoff. A quiet move which refutes a position is likely to
+     * refute its siblings too, so it becomes a killer for this ply and gains
+     * history, more so the deeper the search below it.
+     *
+     * @param move move which caused the cutoff
+     * @param toMove player who made it
+     * @param index where the move came in the ordering
+     * @param d depth on the tree
+     * @param depth remaining depth of the node
+     */
+    private void cutoff(int move, Player toMove, int index, int d,
+            int depth) {
+        int squares = Move.getSquares(move);
+        int[] h = history[toMove.getSide()];
+        cutoffs++;
+        if (index == 0) {
+            firstMoveCutoffs++;
+        }
+        if (Move.isCapture(move)) {
+            return;
+        }
+        if (d < MAX_DEPTH && killers[d][0] != squares) {
+            killers[d][1] = killers[d][0];
+            killers[d][0] = squares;
+        }
+        h[squares] += depth * depth;
+        if (h[squares] >= KILLER) {
+            //keep history below the killers by ageing all of it
+            for (int i = 0; i < h.length; i++) {
+                h[i] /= 2;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a transposition table entry already gives the score of
+     * a node. Scores are only reused at exactly the depth they were searched
+     * to, so a hit never changes what the search returns, only how quickly.
+     *
+     * The table keeps scores for the side to move rather than for the
+     * AIPlayer, so that an AIPlayer of either colour can use what another
+     * left behind. Bounds are passed here from the same point of view.
+     *
+     * @param entry entry from the table, or 0
+     * @param depth remaining depth of the node
+     * @param a best score the side to move is assured of
+     * @param b best score its opponent holds it to
+     * @return true if the entry's score can be returned as is
+     */
+    private static boolean isSettled(long entry, int depth, int a, int b) {
+        if (entry == 0 || TranspositionTable.getDepth(entry) != depth) {
+            return false;
+        }
+        switch (TranspositionTable.getBound(entry)) {
+            case TranspositionTable.EXACT:
+                return true;
+            case TranspositionTable.LOWER:
+                return TranspositionTable.getScore(entry) >= b;
+            default:
+                return TranspositionTable.getScore(entry) <= a;
+        }
+    }
+
+    /**
+     * @param v score found for a node
+     * @param a lower bound the node was searched with
+     * @param b upper bound the node was searched with
+     * @return what v says about the node's true score
+     */
+    private static int boundType(int v, int a, int b) {
+        if (v <= a) {
+            return TranspositionTable.UPPER;
+        }
+        if (v >= b) {
+            return TranspositionTable.LOWER;
+        }
+        return TranspositionTable.EXACT;
+    }
+
+    /**
+     * Cuts off a branch if a terminal node is found
+     *
+     * Terminal nodes may be either a winning condition, or the leaf of a branch
+     * having hit the maximum ply. Only the side to move can be checkmated or
+     * stalemated, so only its moves are looked at.
+     *
+     * @param depth depth on the tree
+     * @return whether or not this is a terminal node
+     */
+    private boolean cutoffTest(int depth) {
+        if (depth >= ply) {
+            return true;
+        }
+        return !board.hasAnyLegalMove(board.getPosition().getSideToMove());
+    }
+
+    /**
+     * Creates a collection of actions that could be carried out by a player.
+     *
+     * @param toMove player whose moves to list
+     * @return moves, as packed by Move
+     */
+    int[] actions(Player toMove) {
+        int count = actions(toMove, -1);
+        return Arrays.copyOf(moveLists[0], count);
+    }
+
+    /**
+     * Creates a collection of actions that could be carried out by a player,
+     * best first so alpha-beta can cut off sooner: the move the table holds
+     * for this position, then captures of the most valuable piece by the
+     * least valuable one, then this ply's killers, then the quiet moves by
+     * history.
+     *
+     * @param toMove player whose moves to list
+     * @param d depth on the tree, or -1 at the root
+     * @return number of moves, which are left in moveLists[d + 1]
+     */
+    private int actions(Player toMove, int d) {
+        return generate(toMove, d, true);
+    }
+
+    /**
+     * @param toMove player whose moves to list
+     * @param d depth on the tree
+     * @return number of captures the player can make, which are left most
+     * valuable victim first in moveLists[d + 1]
+     */
+    private int captures(Player toMove, int d) {
+        return generate(toMove, d, false);
+    }
+
+    /**
+     * Pawns are always promoted to queens, as the AIPlayer does in play.
+     *
+     * @param toMove player whose moves to list
+     * @param d depth on the tree, or -1 at the root
+     * @param quiet whether to list moves which capture nothing
+     * @return number of moves, which are left sorted best first in
+     * moveLists[d + 1]
+     */
+    private int generate(Player toMove, int d, boolean quiet) {
+        int[] moves = moveList(d + 1);
+        int[] scores = scoreLists[d + 1];
+        int[] h = history[toMove.getSide()];
+        int[] killer = quiet && d >= 0 && d < MAX_DEPTH
+                ? killers[d] : NO_KILLERS;
+        int count = board.generateMoves(toMove.getSide(), moves, quiet);
+        int n = 0, move, squares, taken, score;
+        int best = quiet ? TranspositionTable.getMove(
+                ai.table.probe(board.getPosition().getKey())) : 0;
+
+        for (int i = 0; i < count; i++) {
+            move = moves[i];
+            if (Move.getPromotion(move) >= 0
+                    && Move.getPromotion(move) != Position.QUEEN) {
+                continue;
+            }
+            squares = Move.getSquares(move);
+            taken = Move.getCaptured(move);
+            if (best != 0 && squares == best) {
+                score = TABLE_MOVE;
+            } else if (taken >= 0) {
+                score = CAPTURE + Position.VALUES[taken] * 16
+                        - Position.VALUES[Move.getPiece(move)] / 10;
+            } else if (squares == killer[0]) {
+                score = KILLER + 1;
+            } else if (squares == killer[1]) {
+                score = KILLER;
+            } else {
+                score = h[squares];
+            }
+            moves[n] = move;
+            scores[n++] = score;
+        }
+        sort(moves, scores, n);
+
+        return n;
+    }
+
+    /**
+     * Gets the move list for a slot, making it the first time the search
+     * gets that deep, so that after that no move list is ever allocated.
+     *
+     * @param slot depth on the tree + 1
+     * @return move list, whose score list is ready alongside
+     */
+    private int[] moveList(int slot) {
+        if (slot >= moveLists.length) {
+            moveLists = Arrays.copyOf(moveLists, slot * 2);
+            scoreLists = Arrays.copyOf(scoreLists, slot * 2);
+        }
+        if (moveLists[slot] == null) {
+            moveLists[slot] = new int[Board.MAX_MOVES];
+            scoreLists[slot] = new int[Board.MAX_MOVES];
+        }
+        return moveLists[slot];
+    }
+
+    /**
+     * Sorts moves by score, highest first, keeping moves with equal scores in
+     * the order they were generated.
+     *
+     * @param moves moves to sort
+     * @param scores score of each move, sorted along with them
+     * @param n number of moves
+     */
+    private static void sort(int[] moves, int[] scores, int n) {
+        int m, s, j;
+        for (int i = 1; i < n; i++) {
+            m = moves[i];
+            s = scores[i];
+            for (j = i; j > 0 && scores[j - 1] < s; j--) {
+                scores[j] = scores[j - 1];
+                moves[j] = moves[j - 1];
+            }
+            scores[j] = s;
+            moves[j] = m;
+        }
+    }
+}
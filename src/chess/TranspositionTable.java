@@ -0,0 +1,106 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Scores of positions already searched, for the side to move in each
+ * position, keyed by Zobrist key. Searchers on several threads share one
+ * table without locking: each slot holds the data word and the key XORed
+ * with it, so an entry half overwritten by another thread no longer matches
+ * its key and reads as a miss.
+ *
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public class TranspositionTable {
+
+    /**
+     * Kinds of score an entry may hold.
+     */
+    public static final int EXACT = 0;
+    public static final int LOWER = 1;
+    public static final int UPPER = 2;
+
+    //each entry is key ^ data and a data word, packed as
+    //move (16 bits) | depth (8 bits) | bound (8 bits) | score (32 bits)
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    /**
+     * Creates a table using about the given amount of memory.
+     *
+     * @param megabytes memory to use, rounded down to a power of two entries
+     */
+    public TranspositionTable(int megabytes) {
+        long entries = Math.max(1L, megabytes) * 1024 * 1024 / 16;
+        int size = Integer.highestOneBit((int) Math.min(entries, 1 << 30));
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key Zobrist key of the position
+     * @return packed entry, or 0 if the position is not in the table
+     */
+    public long probe(long key) {
+        int i = (int) key & mask;
+        long d = data[i];
+        if ((keys[i] ^ d) == key) {
+            return d;
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a search result, keeping the deeper result if the slot already
+     * holds one for the same position.
+     *
+     * @param key Zobrist key of the position
+     * @param depth remaining depth the position was searched to
+     * @param bound EXACT, LOWER or UPPER
+     * @param score score found, for the side to move
+     * @param move best move found, or 0
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int i = (int) key & mask;
+        long d = data[i];
+        if ((keys[i] ^ d) == key && getDepth(d) > depth) {
+            return;
+        }
+        d = ((long) (move & 0xFFFF) << 48)
+                | ((long) (depth & 0xFF) << 40)
+                | ((long) (bound & 0xFF) << 32)
+                | (score & 0xFFFFFFFFL);
+        keys[i] = key ^ d;
+        data[i] = d;
+    }
+
+    /**
+     * Empties the table.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    public static int getMove(long entry) {
+        return (int) (entry >>> 48);
+    }
+
+    public static int getDepth(long entry) {
+        return (int) (entry >>> 40) & 0xFF;
+    }
+
+    public static int getBound(long entry) {
+        return (int) (entry >>> 32) & 0xFF;
+    }
+
+    public static int getScore(long entry) {
+        return (int) entry;
+    }
+}
@@ -0,0 +1,343 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Plays through the Universal Chess Interface, so the AIPlayer can be run
+ * under a chess GUI or a tournament manager. Commands are read one per line
+ * and answered on the output. Searches run on a thread of their own, so a
+ * "stop" is heard while the engine is thinking.
+ *
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public class Uci {
+
+    static final String NAME = "Chess";
+    static final String AUTHOR = "Alexis Varsava";
+
+    //largest transposition table and most threads the options allow
+    static final int MAX_HASH = 1024;
+    static final int MAX_THREADS = 64;
+    //moves left to the next time control, when the GUI doesn't say
+    static final int MOVES_TO_GO = 30;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    //kept from search to search, so each move starts with what the last
+    //one learned, whichever side that one searched for
+    private TranspositionTable table;
+    private final PawnHashTable pawnTable;
+    private final OpeningBook book;
+    private int threads;
+    //game holding the position to search
+    private Chess game;
+    private AIPlayer ai;
+    private Thread search;
+
+    /**
+     * @param in where commands come from
+     * @param out where answers go
+     */
+    public Uci(BufferedReader in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+        table = new TranspositionTable(AIPlayer.TABLE_MEGABYTES);
+        pawnTable = new PawnHashTable(AIPlayer.PAWN_TABLE_MEGABYTES);
+        book = AIPlayer.openBook();
+        threads = 1;
+        game = new Chess(Chess.START_FEN);
+    }
+
+    /**
+     * Answers commands until told to quit or the input ends. Commands which
+     * are not understood are ignored, as the protocol asks.
+     *
+     * @throws IOException if the input cannot be read
+     */
+    public void run() throws IOException {
+        String line;
+        String[] words;
+
+        while ((line = in.readLine()) != null) {
+            words = line.trim().split("\\s+");
+            switch (words[0]) {
+                case "uci":
+                    send("id name " + NAME);
+                    send("id author " + AUTHOR);
+                    send("option name Hash type spin default "
+                            + AIPlayer.TABLE_MEGABYTES + " min 1 max "
+                            + MAX_HASH);
+                    send("option name Threads type spin default 1 min 1 max "
+                            + MAX_THREADS);
+                    send("uciok");
+                    break;
+                case "isready":
+                    send("readyok");
+                    break;
+                case "setoption":
+                    stop();
+                    setOption(words);
+                    break;
+                case "ucinewgame":
+                    stop();
+                    table.clear();
+                    pawnTable.clear();
+                    break;
+                case "position":
+                    stop();
+                    position(words);
+                    break;
+                case "go":
+                    stop();
+                    go(words);
+                    break;
+                case "stop":
+                    stop();
+                    break;
+                case "quit":
+                    stop();
+                    return;
+                default:
+                    break;
+            }
+        }
+        stop();
+    }
+
+    /**
+     * Sets the Hash option, in megabytes, or the Threads option.
+     *
+     * @param words "setoption name" followed by a name, "value" and a value
+     */
+    private void setOption(String[] words) {
+        String name = "", value = "";
+        boolean inValue = false;
+
+        for (int i = 2; i < words.length; i++) {
+            if (words[i].equals("value")) {
+                inValue = true;
+            } else if (inValue) {
+                value = words[i];
+            } else {
+                name += words[i];
+            }
+        }
+        try {
+            if (name.equalsIgnoreCase("Hash")) {
+                table = new TranspositionTable(Math.max(1,
+                        Math.min(MAX_HASH, Integer.parseInt(value))));
+            } else if (name.equalsIgnoreCase("Threads")) {
+                threads = Math.max(1,
+                        Math.min(MAX_THREADS, Integer.parseInt(value)));
+            }
+        } catch (NumberFormatException ex) {
+            send("info string bad value for " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Sets up a position and plays the moves given from it.
+     *
+     * @param words "position", then "startpos" or "fen" and a FEN, then
+     * optionally "moves" and moves in coordinate notation
+     */
+    private void position(String[] words) {
+        String fen = Chess.START_FEN;
+        int i = 2;
+        int move;
+
+        if (words.length > 1 && words[1].equals("fen")) {
+            fen = "";
+            while (i < words.length && !words[i].equals("moves")) {
+                fen += words[i++] + " ";
+            }
+        }
+        try {
+            game = new Chess(fen);
+        } catch (RuntimeException ex) {
+            send("info string bad position: " + fen);
+            game = new Chess(Chess.START_FEN);
+            return;
+        }
+        while (i < words.length && !words[i].equals("moves")) {
+            i++;
+        }
+        for (i++; i < words.length; i++) {
+            move = findMove(game.getBoard(), words[i]);
+            if (move == Move.NONE) {
+                send("info string illegal move: " + words[i]);
+                return;
+            }
+            game.getBoard().makeMove(move);
+        }
+        //only the engine's own move is ever taken back
+        game.getBoard().clearUndo();
+    }
+
+    /**
+     * @param board board to find the move on
+     * @param name move in coordinate notation, such as e2e4 or a7a8q
+     * @return the legal move by that name, or Move.NONE if there is none
+     */
+    static int findMove(Board board, String name) {
+        int[] moves = new int[Board.MAX_MOVES];
+        int count = board.generateMoves(
+                board.getPosition().getSideToMove(), moves, true);
+        for (int i = 0; i < count; i++) {
+            if (Move.toString(moves[i]).equals(name)) {
+                return moves[i];
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Starts searching the current position. With no depth, time or
+     * "infinite" given, the search goes on until it is told to stop.
+     *
+     * @param words "go", then any of "depth", "movetime", "wtime", "btime",
+     * "winc", "binc" and "movestogo" each with a number, and "infinite"
+     */
+    private void go(String[] words) {
+        int side = game.getBoard().getPosition().getSideToMove();
+        boolean white = side == COLOURS.white.ordinal();
+        int depth = Searcher.MAX_DEPTH, movesToGo = MOVES_TO_GO;
+        long millis = 0, time = 0, inc = 0;
+
+        try {
+            for (int i = 1; i < words.length; i++) {
+                switch (words[i]) {
+                    case "depth":
+                        depth = Integer.parseInt(words[++i]);
+                        break;
+                    case "movetime":
+                        millis = Long.parseLong(words[++i]);
+                        break;
+                    case "wtime":
+                    case "btime":
+                        if (words[i].equals(white ? "wtime" : "btime")) {
+                            time = Long.parseLong(words[i + 1]);
+                        }
+                        i++;
+                        break;
+                    case "winc":
+                    case "binc":
+                        if (words[i].equals(white ? "winc" : "binc")) {
+                            inc = Long.parseLong(words[i + 1]);
+                        }
+                        i++;
+                        break;
+                    case "movestogo":
+                        movesToGo = Math.max(1, Integer.parseInt(words[++i]));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (RuntimeException ex) {
+            send("info string bad go command");
+            return;
+        }
+        //share out the clock, never spending more than half of it
+        if (millis == 0 && time > 0) {
+            millis = Math.max(1, Math.min(time / movesToGo + inc / 2,
+                    time / 2));
+        }
+
+        ai = new AIPlayer(COLOURS.values()[side], game.getBoard(),
+                Math.max(0, Math.min(depth, Searcher.MAX_DEPTH) - 1), millis,
+                table, pawnTable);
+        ai.setThreads(threads);
+        ai.setBook(book);
+        ai.setIterationListener(this::info);
+        search = new Thread(this::think, "search");
+        search.start();
+    }
+
+    /**
+     * Searches, then reports the move chosen along with the reply the
+     * search expects. The move is taken back, since the GUI sends the
+     * position again before the next search.
+     */
+    private void think() {
+        BoardChange bc = ai.movePiece();
+        List<String> pv;
+        ai.shutdown();
+        if (bc == null) {
+            send("bestmove 0000");
+            return;
+        }
+        game.getBoard().unmakeMove();
+        pv = ai.getLastStats().getPv();
+        //the reply only means anything after the move actually played
+        if (pv.size() > 1 && pv.get(0).equals(bc.toString())) {
+            send("bestmove " + bc + " ponder " + pv.get(1));
+        } else {
+            send("bestmove " + bc);
+        }
+    }
+
+    /**
+     * Reports an iteration of the search. The depth counts the root moves,
+     * and scores are in centipawns.
+     *
+     * @param s statistics of the search so far
+     */
+    private void info(SearchStats s) {
+        String line = "info depth " + (s.getDepth() + 1)
+                + " score cp " + s.getScore() * 10
+                + " nodes " + s.getNodes()
+                + " nps " + s.getNps()
+                + " time " + s.getMillis();
+        if (!s.getPv().isEmpty()) {
+            line += " pv " + String.join(" ", s.getPv());
+        }
+        send(line);
+    }
+
+    /**
+     * Stops the search, if one is running, and waits for it to report its
+     * move.
+     */
+    private void stop() {
+        if (search == null) {
+            return;
+        }
+        //the search may not have started listening yet, so keep asking
+        while (search.isAlive()) {
+            ai.stop();
+            try {
+                search.join(10);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        search = null;
+    }
+
+    private synchronized void send(String line) {
+        out.println(line);
+        out.flush();
+    }
+
+    /**
+     * Speaks UCI on System.in and System.out.
+     *
+     * @param args command line arguments, ignored
+     */
+    public static void main(String[] args) {
+        try {
+            new Uci(new BufferedReader(new InputStreamReader(System.in)),
+                    System.out).run();
+        } catch (IOException ex) {
+            System.err.println("Input error!");
+        }
+    }
+}
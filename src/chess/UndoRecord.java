@@ -0,0 +1,36 @@
+package chess;
+
+/**
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public class UndoRecord {
+
+    /**
+     * Everything Board.makeMove() changes which cannot be recovered from the
+     * position after the move. Records are reused, so nothing here outlives
+     * the matching call to Board.unmakeMove().
+     */
+    Chessman piece;
+    int from;
+    int to;
+    boolean firstMove;
+
+    //piece taken by the move and the square it stood on
+    Chessman captured;
+    int captureSquare;
+
+    //en passant target square and castling rights before the move
+    int enPassant;
+    int castling;
+
+    //rook moved alongside the king when castling
+    Chessman rook;
+    int rookFrom;
+    int rookTo;
+    boolean rookFirstMove;
+
+    //piece a pawn was promoted to
+    Chessman promoted;
+}
@@ -0,0 +1,73 @@
+package chess;
+
+import java.util.Random;
+
+/**
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public final class Zobrist {
+
+    //fixed seed, so keys are the same from one run to the next
+    private static final long SEED = 0x43686573734B6579L;
+
+    private static final long[][][] PIECES;
+    private static final long[] EN_PASSANT;
+    private static final long[] CASTLING;
+    private static final long SIDE;
+
+    static {
+        Random r = new Random(SEED);
+        int squares = Bitboards.SIZE * Bitboards.SIZE;
+        PIECES = new long[2][Position.NUM_TYPES][squares];
+        EN_PASSANT = new long[squares];
+        CASTLING = new long[16];
+
+        for (int side = 0; side < 2; side++) {
+            for (int type = 0; type < Position.NUM_TYPES; type++) {
+                for (int sq = 0; sq < squares; sq++) {
+                    PIECES[side][type][sq] = r.nextLong();
+                }
+            }
+        }
+        for (int sq = 0; sq < squares; sq++) {
+            EN_PASSANT[sq] = r.nextLong();
+        }
+        //the empty set of castling rights hashes to nothing
+        for (int i = 1; i < CASTLING.length; i++) {
+            CASTLING[i] = r.nextLong();
+        }
+        SIDE = r.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int side, int type, int sq) {
+        return PIECES[side][type][sq];
+    }
+
+    /**
+     * @param sq en passant square, or -1 for none
+     * @return key for that en passant square
+     */
+    public static long enPassant(int sq) {
+        return sq < 0 ? 0 : EN_PASSANT[sq];
+    }
+
+    /**
+     * @param rights castling rights, as kept by Position
+     * @return key for those rights
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @return key mixed in while black is to move
+     */
+    public static long side() {
+        return SIDE;
+    }
+}
@@ -0,0 +1,36 @@
+package chess;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * @author Alexis Varsava <av11sl@brocku.ca>
+ * @version 1
+ * @since 2026-10-18
+ */
+public class AIPlayerTest {
+
+    //a shallow search here picks a different move than a deep one
+    private static final String FEN
+            = "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3";
+
+    /**
+     * The principal variation starts with the move played, even when a
+     * deeper search of the same position left its own move in the table.
+     */
+    @Test
+    public void pvStartsWithMovePlayed() {
+        Board board = new Chess(FEN).getBoard();
+        TranspositionTable table = new TranspositionTable(16);
+        PawnHashTable pawnTable = new PawnHashTable(1);
+
+        for (int ply : new int[]{3, 0}) {
+            AIPlayer ai = new AIPlayer(COLOURS.white, board, ply, 0, table,
+                    pawnTable);
+            BoardChange bc = ai.movePiece();
+            ai.shutdown();
+            board.unmakeMove();
+            assertEquals(bc.toString(), ai.getLastStats().getPv().get(0));
+        }
+    }
+}